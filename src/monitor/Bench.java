@@ -0,0 +1,587 @@
+package monitor;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Scanner;
+
+/**
+ * File: Bench.java
+ * Date: 18 October 2026
+ * @author Logan Hershberger
+ * Purpose: Benchmarks behind the timings quoted in the commit history, run from the command line
+ *          on data files written by WorldGenerator or the sample inputs. Each benchmark prints
+ *          one line per round so runs can be compared by hand.
+ *
+ *          Usage: java monitor.Bench benchmark [arguments]
+ *            tokenize file [rounds]   splits every line of the file into tokens with a Scanner
+ *                                     per line, as the original loader did, and with
+ *                                     DataFileTokenizer, after checking both give the same
+ *                                     tokens and numbers
+ *            exec file mode [threads] [speed] [seconds]
+ *                                     runs every job of the file in one executor mode and
+ *                                     prints the runtime, peak resident memory and peak threads
+ *            suspend file mode [threads] [speed]
+ *                                     suspends every job, then measures the CPU time, context
+ *                                     switches and pool tasks of the process over 10 seconds,
+ *                                     and times cancelling the jobs once they are resumed
+ *            contention file mode [threads] [speed]
+ *                                     runs every job of the file and prints the wall and CPU
+ *                                     time, the resumes per job that needed workers and the
+ *                                     simulated time until the last job ended
+ *            allocation file mode [threads] [speed]
+ *                                     records a run of every job of the file and prints the jobs
+ *                                     done per simulated hour, how long jobs waited for workers
+ *                                     after their ship docked and when they ended
+ *            pool file [rounds]       times taking and returning workers with a SkillPool and
+ *                                     with the list the original resource map kept per skill,
+ *                                     using the workers of the most common skill of the first
+ *                                     port with half of them out on jobs
+ *
+ *          Modes are the names of JobExecutor.Mode. Speeds are simulation speed multipliers,
+ *          10 by default, 500 for suspend and 100 for contention and allocation. Threads is the
+ *          PLATFORM_POOL size, 4 by default and 64 for contention.
+ */
+public class Bench {
+
+  private static final String USAGE = "Usage: java monitor.Bench tokenize file [rounds]\n"
+          + "       java monitor.Bench exec file mode [threads] [speed] [seconds]\n"
+          + "       java monitor.Bench suspend file mode [threads] [speed]\n"
+          + "       java monitor.Bench contention file mode [threads] [speed]\n"
+          + "       java monitor.Bench allocation file mode [threads] [speed]\n"
+          + "       java monitor.Bench pool file [rounds]";
+
+  public static void main(String[] args) {
+    try {
+      if (args.length < 2) {
+        throw new IllegalArgumentException("No benchmark or file given");
+      }
+      switch (args[0]) {
+        case "tokenize":
+          tokenize(new File(args[1]), intArg(args, 2, 5));
+          break;
+        case "exec":
+          exec(new File(args[1]), modeArg(args, 2), intArg(args, 3, 4), doubleArg(args, 4, 10),
+                  intArg(args, 5, 600));
+          break;
+        case "suspend":
+          suspend(new File(args[1]), modeArg(args, 2), intArg(args, 3, 4), doubleArg(args, 4, 500));
+          break;
+        case "contention":
+          contention(new File(args[1]), modeArg(args, 2), intArg(args, 3, 64),
+                  doubleArg(args, 4, 100));
+          break;
+        case "allocation":
+          allocation(new File(args[1]), modeArg(args, 2), intArg(args, 3, 4),
+                  doubleArg(args, 4, 100));
+          break;
+        case "pool":
+          pool(new File(args[1]), intArg(args, 2, 6));
+          break;
+        default:
+          throw new IllegalArgumentException("Unknown benchmark " + args[0]);
+      }
+    } catch (IllegalArgumentException e) {
+      System.err.println("Error: " + e.getMessage());
+      System.err.println(USAGE);
+      System.exit(1);
+    } catch (IllegalStateException e) {
+      System.err.println("Failed: " + e.getMessage());
+      System.exit(1);
+    } catch (IOException e) {
+      System.err.println("Error: " + args[1] + " could not be read");
+      System.exit(1);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      System.exit(1);
+    }
+  } // end of main
+
+  // returns the argument at i as an int, or the default if there are fewer arguments
+  private static int intArg(String[] args, int i, int defaultValue) {
+    return (i < args.length) ? Integer.parseInt(args[i]) : defaultValue;
+  }
+
+  private static double doubleArg(String[] args, int i, double defaultValue) {
+    return (i < args.length) ? Double.parseDouble(args[i]) : defaultValue;
+  }
+
+  private static JobExecutor.Mode modeArg(String[] args, int i) {
+    if (i >= args.length) {
+      throw new IllegalArgumentException("No executor mode given");
+    }
+    return JobExecutor.Mode.valueOf(args[i]);
+  }
+
+  // loads every port of a data file into a world run by a new executor
+  private static World loadWorld(File file, JobExecutor.Mode mode, int threads, double speed)
+          throws IOException {
+    World world = new WorldLoader().load(file, "Bench").getWorld();
+    world.setExecutor(new JobExecutor(mode, threads));
+    world.getExecutor().getClock().setSpeed(speed);
+    return world;
+  }
+
+  // waits until every job of the world has ended or the time limit has passed
+  private static boolean awaitJobs(World world, long limitMillis) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + limitMillis;
+    while (!world.isJobsComplete()) {
+      if (System.currentTimeMillis() > deadline) {
+        return false;
+      }
+      Thread.sleep(20);
+    }
+    return true;
+  }
+
+  // returns the peak resident memory of this process in MB, or -1 where /proc is not available
+  private static long peakResidentMemory() {
+    try {
+      for (String line : Files.readAllLines(Paths.get("/proc/self/status"))) {
+        if (line.startsWith("VmHWM:")) {
+          return Long.parseLong(line.replaceAll("\\D", "")) / 1024;
+        }
+      }
+    } catch (IOException e) {
+      // not Linux
+    }
+    return -1;
+  }
+
+  // returns the CPU time used by this process in nanoseconds, or -1 if the JVM does not report it
+  private static long processCpuTime() {
+    OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+    if (os instanceof com.sun.management.OperatingSystemMXBean) {
+      return ((com.sun.management.OperatingSystemMXBean) os).getProcessCpuTime();
+    }
+    return -1;
+  }
+
+  // returns the context switches so far of each live thread of this process by thread id, empty
+  // without /proc
+  private static HashMap<String, Long> contextSwitches() {
+    HashMap<String, Long> counts = new HashMap<>();
+    try (DirectoryStream<Path> tasks = Files.newDirectoryStream(Paths.get("/proc/self/task"))) {
+      for (Path task : tasks) {
+        long count = 0;
+        try {
+          for (String line : Files.readAllLines(task.resolve("status"))) {
+            if (line.contains("ctxt_switches:")) {
+              count += Long.parseLong(line.replaceAll("\\D", ""));
+            }
+          }
+        } catch (IOException e) {
+          // the thread ended while it was read
+          continue;
+        }
+        counts.put(task.getFileName().toString(), count);
+      }
+    } catch (IOException e) {
+      // not Linux
+    }
+    return counts;
+  }
+
+  // returns the context switches between two samples, threads that ended in between are left out
+  private static long contextSwitchesSince(HashMap<String, Long> before) {
+    long count = 0;
+    for (Map.Entry<String, Long> thread : contextSwitches().entrySet()) {
+      count += thread.getValue() - before.getOrDefault(thread.getKey(), 0L);
+    }
+    return count;
+  }
+
+  /**
+   * Runs every job of a data file to the end in one executor mode
+   * @param file data file to load
+   * @param mode how the jobs are run
+   * @param threads pool size in PLATFORM_POOL mode
+   * @param speed simulation speed
+   * @param seconds time limit, jobs still running then are counted as unfinished
+   * @throws IOException if the file cannot be read
+   * @throws InterruptedException if interrupted while the jobs run
+   */
+  static void exec(File file, JobExecutor.Mode mode, int threads, double speed, int seconds)
+          throws IOException, InterruptedException {
+    World world = loadWorld(file, mode, threads, speed);
+    long start = System.nanoTime();
+    world.startSimulation();
+    awaitJobs(world, seconds * 1000L);
+    long end = System.nanoTime();
+
+    JobStatusCounts counts = world.getJobCounts();
+    System.out.printf("%s jobs %d: done %d, lacking %d, cancelled %d, unfinished %d%n",
+            world.getExecutor().getMode(), counts.getTotal(), counts.get(Job.Status.DONE),
+            counts.get(Job.Status.LACKOFRESOURCES), counts.get(Job.Status.CANCELLED),
+            counts.getUnfinishedCount());
+    System.out.printf("runtime %.1f s, first job %.1f ms, peak RSS %d MB, peak threads %d%n",
+            (end - start) / 1e9, world.getTimeToFirstJob(), peakResidentMemory(),
+            ManagementFactory.getThreadMXBean().getPeakThreadCount());
+    world.shutdown(1000);
+  }
+
+  /**
+   * Measures the cost of suspended jobs. Every job is suspended a second after the simulation
+   * starts, and the process is sampled over 10 seconds once they have settled. The jobs are
+   * then resumed and cancelled. Suits data files whose jobs outlast the run.
+   * @param file data file to load
+   * @param mode how the jobs are run
+   * @param threads pool size in PLATFORM_POOL mode
+   * @param speed simulation speed
+   * @throws IOException if the file cannot be read
+   * @throws InterruptedException if interrupted while the jobs run
+   */
+  static void suspend(File file, JobExecutor.Mode mode, int threads, double speed)
+          throws IOException, InterruptedException {
+    World world = loadWorld(file, mode, threads, speed);
+    List<Job> jobs = world.getJobs();
+    world.startSimulation();
+    Thread.sleep(1000);
+    for (Job job : jobs) {
+      job.toggleGoFlag();
+    }
+    Thread.sleep(3000);
+
+    int[] progress = new int[jobs.size()];
+    for (int i = 0; i < progress.length; i++) {
+      progress[i] = jobs.get(i).getProgress();
+    }
+    long tasks = world.getExecutor().getCompletedTaskCount();
+    long cpu = processCpuTime();
+    HashMap<String, Long> switches = contextSwitches();
+    long start = System.nanoTime();
+    Thread.sleep(10_000);
+    double seconds = (System.nanoTime() - start) / 1e9;
+    cpu = processCpuTime() - cpu;
+    long switched = contextSwitchesSince(switches);
+    tasks = world.getExecutor().getCompletedTaskCount() - tasks;
+
+    int suspended = world.getJobCounts().get(Job.Status.SUSPENDED);
+    int moved = 0;
+    for (int i = 0; i < progress.length; i++) {
+      if (jobs.get(i).getProgress() != progress[i]) {
+        moved++;
+      }
+    }
+    System.out.printf("%s suspended %d of %d, progress moved in %d%n",
+            world.getExecutor().getMode(), suspended, jobs.size(), moved);
+    System.out.printf("CPU %.1f%%, context switches %.0f/s, pool tasks %.0f/s, threads %d%n",
+            100 * cpu / 1e9 / seconds, switched / seconds, tasks / seconds,
+            Thread.activeCount());
+
+    for (Job job : jobs) {
+      job.toggleGoFlag();
+    }
+    Thread.sleep(1000);
+    int running = world.getJobCounts().get(Job.Status.RUNNING);
+    start = System.nanoTime();
+    world.killJobs();
+    awaitJobs(world, 60_000);
+    System.out.printf("resumed, %d running; all jobs ended %.0f ms after the kill%n", running,
+            (System.nanoTime() - start) / 1e6);
+    world.shutdown(1000);
+  }
+
+  /**
+   * Times tokenizing a data file with a Scanner per line against DataFileTokenizer
+   * @param file data file to read
+   * @param rounds number of timed rounds
+   * @throws IOException if the file cannot be read
+   * @throws IllegalStateException if the two give different tokens
+   */
+  static void tokenize(File file, int rounds) throws IOException {
+    long tokens = checkTokens(file);
+    System.out.println("tokens: " + tokens + ", identical");
+    for (int round = 0; round < rounds; round++) {
+      long start = System.nanoTime();
+      long scanned = 0;
+      try (Scanner lines = new Scanner(file)) {
+        while (lines.hasNextLine()) {
+          Scanner line = new Scanner(lines.nextLine());
+          while (line.hasNext()) {
+            line.next();
+            scanned++;
+          }
+        }
+      }
+      long middle = System.nanoTime();
+      long read = 0;
+      try (DataFileTokenizer tokenizer = new DataFileTokenizer(file)) {
+        while (tokenizer.nextLine()) {
+          while (tokenizer.hasNext()) {
+            tokenizer.skip();
+            read++;
+          }
+        }
+      }
+      long end = System.nanoTime();
+      System.out.printf("scanner %d ms (%d tokens)  tokenizer %d ms (%d tokens)%n",
+              (middle - start) / 1_000_000, scanned, (end - middle) / 1_000_000, read);
+    }
+  }
+
+  // checks that the tokenizer gives every token the Scanner does, numbers bit for bit, and
+  // returns the number of tokens
+  private static long checkTokens(File file) throws IOException {
+    long count = 0;
+    try (Scanner lines = new Scanner(file);
+         DataFileTokenizer tokenizer = new DataFileTokenizer(file)) {
+      while (lines.hasNextLine()) {
+        String text = lines.nextLine();
+        if (!tokenizer.nextLine()) {
+          throw new IllegalStateException("Tokenizer ended before line: " + text);
+        }
+        Scanner line = new Scanner(text);
+        while (line.hasNext()) {
+          String token = line.next();
+          double expected;
+          try {
+            expected = Double.parseDouble(token);
+          } catch (NumberFormatException e) {
+            String actual = tokenizer.next();
+            if (!token.equals(actual)) {
+              throw new IllegalStateException("Token " + actual + " should be " + token);
+            }
+            count++;
+            continue;
+          }
+          double actual = tokenizer.nextDouble();
+          if (Double.doubleToLongBits(actual) != Double.doubleToLongBits(expected)) {
+            throw new IllegalStateException("Number " + actual + " should be " + token);
+          }
+          count++;
+        }
+        if (tokenizer.hasNext()) {
+          throw new IllegalStateException("Tokenizer has extra tokens on line: " + text);
+        }
+      }
+      if (tokenizer.nextLine()) {
+        throw new IllegalStateException("Tokenizer has lines past the end of the file");
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Measures how jobs compete for the workers of their port. Suits data files with many jobs
+   * at few ports and workers that are scarce.
+   * @param file data file to load
+   * @param mode how the jobs are run
+   * @param threads pool size in PLATFORM_POOL mode
+   * @param speed simulation speed
+   * @throws IOException if the file cannot be read
+   * @throws InterruptedException if interrupted while the jobs run
+   */
+  static void contention(File file, JobExecutor.Mode mode, int threads, double speed)
+          throws IOException, InterruptedException {
+    World world = loadWorld(file, mode, threads, speed);
+    long simulatedStart = world.getExecutor().currentTimeMillis();
+    long cpu = processCpuTime();
+    long start = System.nanoTime();
+    world.startSimulation();
+    while (!world.isJobsComplete()) {
+      Thread.sleep(5);
+    }
+    double wall = (System.nanoTime() - start) / 1e9;
+    cpu = processCpuTime() - cpu;
+    long simulated = world.getExecutor().currentTimeMillis() - simulatedStart;
+
+    int withWorkers = 0;
+    for (Job job : world.getJobs()) {
+      if (job.getStatus() == Job.Status.DONE && job.requirements.length > 0) {
+        withWorkers++;
+      }
+    }
+    System.out.printf("%s jobs %d, %d done with workers%n", world.getExecutor().getMode(),
+            world.getJobCount(), withWorkers);
+    System.out.printf("wall %.2f s, CPU %.2f s, resumes per job %.1f, simulated %.1f s,"
+            + " peak threads %d%n", wall, cpu / 1e9,
+            world.getResumeCount() / (double) Math.max(1, withWorkers), simulated / 1000.0,
+            ManagementFactory.getThreadMXBean().getPeakThreadCount());
+    world.shutdown(1000);
+  }
+
+  /**
+   * Measures how well the waiting jobs are given workers. The run is recorded to a schedule
+   * log, and each job's wait is the time from its ship docking, or the start for ships docked
+   * from the start, to the recorded decision that gave it workers. Jobs that need no workers
+   * are not counted. Suits data files with workers that are scarce.
+   * @param file data file to load
+   * @param mode how the jobs are run
+   * @param threads pool size in PLATFORM_POOL mode
+   * @param speed simulation speed
+   * @throws IOException if the file cannot be read or the log cannot be written
+   * @throws InterruptedException if interrupted while the jobs run
+   */
+  static void allocation(File file, JobExecutor.Mode mode, int threads, double speed)
+          throws IOException, InterruptedException {
+    World world = loadWorld(file, mode, threads, speed);
+    File logFile = File.createTempFile("allocation", ".log");
+    logFile.deleteOnExit();
+    ScheduleLog log = ScheduleLog.record(logFile, file);
+    world.setScheduleLog(log);
+    long simulatedStart = world.getExecutor().currentTimeMillis();
+    long start = System.nanoTime();
+    world.startSimulation();
+    while (!world.isJobsComplete()) {
+      Thread.sleep(2);
+    }
+    double wall = (System.nanoTime() - start) / 1e9;
+    long simulatedEnd = world.getExecutor().currentTimeMillis();
+    world.shutdown(1000);
+    log.close();
+
+    ScheduleLog recorded = ScheduleLog.replay(logFile, file);
+    HashMap<Integer, Long> docked = new HashMap<>();
+    for (ScheduleLog.Decision d : recorded.getDecisions(false)) {
+      docked.put(d.subject, d.time);
+    }
+    List<ScheduleLog.Decision> granted = recorded.getDecisions(true);
+    long[] waits = new long[granted.size()];
+    long[] ends = new long[granted.size()];
+    for (int i = 0; i < waits.length; i++) {
+      ScheduleLog.Decision d = granted.get(i);
+      Job job = (Job) world.registry.get(d.subject);
+      waits[i] = d.time - docked.getOrDefault(job.ship.index, simulatedStart);
+      ends[i] = d.time + job.getTotalTime() - simulatedStart;
+    }
+    Arrays.sort(waits);
+    Arrays.sort(ends);
+
+    JobStatusCounts counts = world.getJobCounts();
+    double hours = (simulatedEnd - simulatedStart) / 3.6e6;
+    System.out.printf("%s done %d, lacking %d, last job ended at %.1f s, %.0f jobs/sim hour,"
+            + " wall %.2f s%n", world.getExecutor().getMode(), counts.get(Job.Status.DONE),
+            counts.get(Job.Status.LACKOFRESOURCES), hours * 3600,
+            counts.get(Job.Status.DONE) / hours, wall);
+    if (waits.length > 0) {
+      System.out.printf("%d jobs given workers: wait mean %.1f s, p99 %.1f s, max %.1f s;"
+              + " ended mean %.1f s, median %.1f s%n", waits.length, mean(waits) / 1000,
+              waits[(int) (waits.length * 0.99)] / 1000.0, waits[waits.length - 1] / 1000.0,
+              mean(ends) / 1000, ends[ends.length / 2] / 1000.0);
+    }
+  }
+
+  private static double mean(long[] values) {
+    double sum = 0;
+    for (long v : values) {
+      sum += v;
+    }
+    return sum / values.length;
+  }
+
+  /**
+   * Times the worker operations of a skill pool against the list the original resource map
+   * kept for each skill. A cycle takes 1 to 3 workers and returns them. A lookup checks for a
+   * given worker and takes and returns it, as replaying a recorded assignment does.
+   * @param file data file to load, its first port should have many workers of one skill
+   * @param rounds number of timed rounds, the best is printed
+   * @throws IOException if the file cannot be read
+   */
+  static void pool(File file, int rounds) throws IOException {
+    World world = new WorldLoader().load(file, "Bench").getWorld();
+    Port port = world.ports.get(0);
+    port.ensureLoaded();
+    int[] perSkill = new int[world.skills.size()];
+    int skill = 0;
+    for (Person p : port.persons) {
+      if (++perSkill[p.skillId] > perSkill[skill]) {
+        skill = p.skillId;
+      }
+    }
+    ArrayList<Person> workers = new ArrayList<>();
+    for (Person p : port.persons) {
+      if (p.skillId == skill) {
+        workers.add(p);
+      }
+    }
+
+    // half of the workers are out on jobs, as at a busy port
+    ArrayList<Person> list = new ArrayList<>(workers);
+    SkillPool pool = new SkillPool(skill, new ArrayList<>(workers));
+    ArrayList<Person> out = new ArrayList<>(workers);
+    Collections.shuffle(out, new Random(5));
+    for (Person p : out.subList(0, workers.size() / 2)) {
+      list.remove(p);
+      pool.take(p);
+    }
+    System.out.printf("%d workers, %d available%n", workers.size(), pool.getAvailableCount());
+
+    Person[] all = workers.toArray(new Person[0]);
+    ArrayList<Person> taken = new ArrayList<>(4);
+    long found = 0;
+    double[] best = {Double.MAX_VALUE, Double.MAX_VALUE, Double.MAX_VALUE, Double.MAX_VALUE};
+    for (int round = 0; round < rounds + 2; round++) {
+      double[] ns = new double[4];
+
+      // take 1-3 of any workers and return them
+      int ops = 200_000;
+      long start = System.nanoTime();
+      for (int op = 0; op < ops; op++) {
+        taken.clear();
+        for (int i = op % 3; i >= 0; i--) {
+          taken.add(list.remove(0));
+        }
+        list.addAll(taken);
+      }
+      ns[0] = (System.nanoTime() - start) / (double) ops;
+      ops = 2_000_000;
+      start = System.nanoTime();
+      for (int op = 0; op < ops; op++) {
+        taken.clear();
+        pool.takeWorkers(1 + op % 3, taken);
+        pool.putBack(taken);
+      }
+      ns[1] = (System.nanoTime() - start) / (double) ops;
+
+      // take a given worker if it is available and return it
+      ops = 200_000;
+      start = System.nanoTime();
+      for (int op = 0; op < ops; op++) {
+        Person wanted = all[(int) ((op * 7919L) % all.length)];
+        if (list.contains(wanted)) {
+          list.remove(wanted);
+          list.add(wanted);
+          found++;
+        }
+      }
+      ns[2] = (System.nanoTime() - start) / (double) ops;
+      start = System.nanoTime();
+      for (int op = 0; op < ops; op++) {
+        Person wanted = all[(int) ((op * 7919L) % all.length)];
+        if (pool.contains(wanted)) {
+          taken.clear();
+          pool.take(wanted);
+          taken.add(wanted);
+          pool.putBack(taken);
+          found++;
+        }
+      }
+      ns[3] = (System.nanoTime() - start) / (double) ops;
+
+      // the first rounds warm up the JIT
+      if (round >= 2) {
+        for (int i = 0; i < ns.length; i++) {
+          best[i] = Math.min(best[i], ns[i]);
+        }
+      }
+    }
+    System.out.printf("ns per operation, best of %d rounds (%d lookups found):%n", rounds, found);
+    System.out.printf("                      list    SkillPool%n");
+    System.out.printf("take 1-3, return    %7.1f  %7.1f%n", best[0], best[1]);
+    System.out.printf("lookup, take        %7.1f  %7.1f%n", best[2], best[3]);
+  }
+
+}
@@ -0,0 +1,152 @@
+package monitor;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * File: CancelCheck.java
+ * Date: 18 October 2026
+ * @author Logan Hershberger
+ * Purpose: Checks that killing a job ends it promptly whatever it is waiting for. A generated
+ *          world with queued ships and scarce workers is run in each executor mode with jobs
+ *          far longer than the check. Jobs waiting for their ship to dock, waiting for workers,
+ *          suspended and parked, and sleeping until their deadline are killed one at a time,
+ *          and each must end within the bound. The check prints the latencies of every state
+ *          and exits with status 1 if any job did not end in time, a job thread threw, or the
+ *          world did not shut down.
+ *
+ *          The event mode runs the virtual clock ahead to the next deadline, so its jobs end
+ *          at once and it has no jobs left in any state to kill. It is run to check that.
+ *
+ *          Usage: java monitor.CancelCheck [boundMillis] [jobsPerState]
+ *            boundMillis   1000 by default
+ *            jobsPerState  most jobs killed in each state, 50 by default
+ */
+public class CancelCheck {
+
+  private static final Job.Status[] STATES = {Job.Status.WAITINGTODOCK,
+          Job.Status.WAITINGFORRESOURCES, Job.Status.SUSPENDED, Job.Status.RUNNING};
+  private static final AtomicInteger uncaught = new AtomicInteger();
+
+  public static void main(String[] args) {
+    long bound = (args.length > 0) ? Long.parseLong(args[0]) : 1000;
+    int perState = (args.length > 1) ? Integer.parseInt(args[1]) : 50;
+    int failures = 0;
+    Thread.setDefaultUncaughtExceptionHandler((t, e) -> {
+      uncaught.incrementAndGet();
+      System.out.println("  " + t.getName() + " threw " + e);
+    });
+    try {
+      File file = File.createTempFile("cancel-check", ".txt");
+      file.deleteOnExit();
+      WorldGenerator generator = new WorldGenerator();
+      generator.setCounts(2, 16, 64, 0, 12, 600);
+      generator.setSkills(4, 0);
+      generator.setDurations(1000, 2000);
+      generator.setMaxRequirements(2);
+      generator.setQueuedRatio(0.5);
+      generator.setSeed(5);
+      generator.write(file);
+
+      for (JobExecutor.Mode mode : JobExecutor.Mode.values()) {
+        failures += check(file, mode, bound, perState);
+      }
+    } catch (IOException e) {
+      System.err.println("Error: World could not be written or loaded: " + e.getMessage());
+      System.exit(1);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      System.exit(1);
+    }
+    if (failures > 0 || uncaught.get() > 0) {
+      System.out.println("FAILED: " + failures + " jobs did not end within " + bound + " ms or "
+              + "worlds did not shut down, " + uncaught.get() + " exceptions thrown");
+      System.exit(1);
+    }
+    System.out.println("OK: every killed job ended within " + bound + " ms");
+  } // end of main
+
+  /**
+   * Kills jobs in each state in one executor mode
+   * @param file data file to load
+   * @param mode how the jobs are run
+   * @param bound longest time in milliseconds a killed job may take to end
+   * @param perState most jobs to kill in each state
+   * @return the number of jobs that did not end within the bound, plus one if the world did not
+   *         shut down
+   * @throws IOException if the file cannot be read
+   * @throws InterruptedException if interrupted while the jobs run
+   */
+  static int check(File file, JobExecutor.Mode mode, long bound, int perState)
+          throws IOException, InterruptedException {
+    World world = new WorldLoader().load(file, "Cancel Check").getWorld();
+    world.setExecutor(new JobExecutor(mode, 4));
+    // VIRTUAL falls back to the pool before Java 21
+    mode = world.getExecutor().getMode();
+    world.getExecutor().getClock().setSpeed(1);
+    List<Job> jobs = world.getJobs();
+    world.startSimulation();
+    Thread.sleep(1000);
+
+    // suspend every other running job and give them time to park
+    int count = 0;
+    for (Job job : jobs) {
+      if (job.getStatus() == Job.Status.RUNNING && count++ % 2 == 0) {
+        job.toggleGoFlag();
+      }
+    }
+    Thread.sleep(500);
+
+    int failures = 0;
+    for (Job.Status state : STATES) {
+      ArrayList<Job> inState = new ArrayList<>();
+      for (Job job : jobs) {
+        if (job.getStatus() == state && inState.size() < perState) {
+          inState.add(job);
+        }
+      }
+
+      double[] latencies = new double[inState.size()];
+      int killed = 0;
+      for (Job job : inState) {
+        // killing other jobs may have moved this one on
+        if (job.getStatus() != state) {
+          continue;
+        }
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(bound);
+        job.kill();
+        while (!JobStatusCounts.isFinal(job.getStatus()) && System.nanoTime() - deadline < 0) {
+          LockSupport.parkNanos(20_000);
+        }
+        if (!JobStatusCounts.isFinal(job.getStatus())) {
+          System.out.println("  " + mode + ": job " + job.getName() + " killed while " + state
+                  + " is still " + job.getStatus());
+          failures++;
+        }
+        latencies[killed++] = (System.nanoTime() - start) / 1e6;
+      }
+
+      if (killed == 0) {
+        System.out.printf("%-14s %-19s no jobs in this state%n", mode, state);
+        continue;
+      }
+      latencies = Arrays.copyOf(latencies, killed);
+      Arrays.sort(latencies);
+      System.out.printf("%-14s %-19s %3d killed, median %.2f ms, max %.2f ms%n", mode, state,
+              killed, latencies[killed / 2], latencies[killed - 1]);
+    }
+
+    if (!world.shutdown(5000)) {
+      System.out.println("  " + mode + ": jobs or threads still running after shutdown");
+      failures++;
+    }
+    return failures;
+  } // end of check
+}
@@ -1,8 +1,5 @@
 package monitor;
 
-import java.util.Map;
-import java.util.Scanner;
-
 /**
  * File: CargoShip.java
  * Date: 27 May 2019
@@ -12,18 +9,17 @@ import java.util.Scanner;
 public class CargoShip extends Ship {
   double cargoValue, cargoVolume, cargoWeight;
 
-  public CargoShip(Scanner sc, Map<Integer,Port> hmp, Map<Integer,Dock> hmd,
-          Map<Integer, Ship> hms){
-    super(sc,hmp,hmd,hms);
-    cargoWeight = Double.parseDouble(sc.next());
-    cargoVolume = Double.parseDouble(sc.next());
-    cargoValue = Double.parseDouble(sc.next());
+  public CargoShip(DataRecord record, World world){
+    super(record,world);
+    cargoWeight = record.values[4];
+    cargoVolume = record.values[5];
+    cargoValue = record.values[6];
   }
 
   public String toString(){
     String s = String.format("%-20s %-20s %-20s %-12.02f %-12.02f %-12.02f %-12.02f %7.02f %-15s "
                     + "%7.02f %-15s %7.02f %-15s", "Ship: Cargo",
-            name, port.name, length, width, weight, draft, cargoWeight,"Cargo Weight",cargoVolume,
+            name, getPortName(), length, width, weight, draft, cargoWeight,"Cargo Weight",cargoVolume,
             "Cargo Volume",cargoValue, "Cargo Value");
     return s;
   }
@@ -0,0 +1,201 @@
+package monitor;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+/**
+ * File: DataFileParser.java
+ * Date: 18 October 2026
+ * @author Logan Hershberger
+ * Purpose: First phase of loading a data file. The file is split into line aligned chunks that
+ *          are parsed into DataRecords in parallel. No linking happens here, so the records can
+ *          appear in any order in the file.
+ */
+public class DataFileParser {
+
+  private static final long MIN_CHUNK_SIZE = 1 << 20;
+  private static final int CHUNKS_PER_THREAD = 4;
+  private static final long PROGRESS_INTERVAL = 1 << 20;
+  private static final int CANCEL_CHECK_INTERVAL = 1024;
+
+  private DataFileParser() {
+  }
+
+  /**
+   * Parses every line of the data file into records using the common ForkJoin pool
+   * @param file data file
+   * @return records in file order, including invalid records for malformed lines
+   * @throws IOException if the file cannot be read
+   */
+  public static List<DataRecord> parse(File file) throws IOException {
+    return parse(file, ForkJoinPool.commonPool(), null, () -> false);
+  }
+
+  /**
+   * Parses every line of the data file into records
+   * @param file data file
+   * @param pool pool used to parse chunks in parallel
+   * @param listener notified as bytes of the file are consumed, may be null
+   * @param cancelled polled while parsing, the parse stops when it returns true
+   * @return records in file order, including invalid records for malformed lines
+   * @throws IOException if the file cannot be read
+   * @throws CancellationException if the parse was cancelled
+   */
+  public static List<DataRecord> parse(File file, ForkJoinPool pool,
+          WorldLoader.ProgressListener listener, BooleanSupplier cancelled) throws IOException {
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      long size = channel.size();
+      Progress progress = new Progress(size, listener, cancelled);
+      long chunkSize = Math.max(MIN_CHUNK_SIZE,
+              size / ((long) pool.getParallelism() * CHUNKS_PER_THREAD));
+
+      ArrayList<ChunkTask> tasks = new ArrayList<>();
+      long start = 0;
+      while (start < size) {
+        long end = (size - start <= chunkSize) ? size : nextLineStart(channel, start + chunkSize);
+        tasks.add(new ChunkTask(channel, start, end, progress));
+        start = end;
+      }
+
+      try {
+        pool.submit(() -> ForkJoinTask.invokeAll(tasks)).join();
+      } catch (UncheckedIOException e) {
+        throw e.getCause();
+      }
+
+      // chunks count lines from 1, shift them by the lines in the preceding chunks
+      ArrayList<DataRecord> records = new ArrayList<>();
+      int lineOffset = 0;
+      for (ChunkTask task : tasks) {
+        ChunkTask.Result result = task.join();
+        for (DataRecord r : result.records) {
+          r.line += lineOffset;
+          records.add(r);
+        }
+        lineOffset += result.lineCount;
+      }
+      return records;
+    }
+  }
+
+  // returns the offset just past the first newline at or after pos, or the file size
+  private static long nextLineStart(FileChannel channel, long pos) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(8192);
+    long size = channel.size();
+    while (pos < size) {
+      buffer.clear();
+      int n = channel.read(buffer, pos);
+      if (n <= 0) {
+        break;
+      }
+      for (int i = 0; i < n; i++) {
+        if (buffer.get(i) == '\n') {
+          return pos + i + 1;
+        }
+      }
+      pos += n;
+    }
+    return size;
+  }
+
+
+  // Progress and cancellation shared by the chunks of one parse
+  private static class Progress {
+    private final long size;
+    private final AtomicLong bytesRead = new AtomicLong();
+    private final WorldLoader.ProgressListener listener;
+    private final BooleanSupplier cancelled;
+
+    Progress(long size, WorldLoader.ProgressListener listener, BooleanSupplier cancelled) {
+      this.size = size;
+      this.listener = listener;
+      this.cancelled = cancelled;
+    }
+
+    void add(long bytes) {
+      long total = bytesRead.addAndGet(bytes);
+      if (listener != null) {
+        listener.progress(total, size);
+      }
+    }
+
+    void checkCancelled() {
+      if (cancelled.getAsBoolean()) {
+        throw new CancellationException("Data file load was cancelled");
+      }
+    }
+  }
+
+
+  // Parses one line aligned range of the file
+  private static class ChunkTask extends RecursiveTask<ChunkTask.Result> {
+    static final long serialVersionUID = 1L;
+
+    private final transient FileChannel channel;
+    private final long start;
+    private final long end;
+    private final transient Progress progress;
+
+    static class Result {
+      ArrayList<DataRecord> records = new ArrayList<>();
+      int lineCount;
+    }
+
+    ChunkTask(FileChannel channel, long start, long end, Progress progress) {
+      this.channel = channel;
+      this.start = start;
+      this.end = end;
+      this.progress = progress;
+    }
+
+    @Override
+    protected Result compute() {
+      Result result = new Result();
+      DataFileTokenizer tokens = new DataFileTokenizer(channel, start, end);
+      long reported = start;
+      try {
+        while (tokens.nextLine()) {
+          if (tokens.getLineNumber() % CANCEL_CHECK_INTERVAL == 0) {
+            progress.checkCancelled();
+            if (tokens.getPosition() - reported >= PROGRESS_INTERVAL) {
+              progress.add(tokens.getPosition() - reported);
+              reported = tokens.getPosition();
+            }
+          }
+          if (!tokens.hasNext()) {
+            continue;
+          }
+          try {
+            DataRecord r = DataRecord.parse(tokens.next(), tokens);
+            if (r != null) {
+              r.offset = tokens.getLineOffset();
+              r.length = tokens.getLineLength();
+              result.records.add(r);
+            }
+          } catch (IllegalArgumentException | NoSuchElementException e) {
+            // unknown object type, malformed number or missing field
+            result.records.add(DataRecord.invalid(tokens.getLineNumber()));
+          }
+        }
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      progress.add(end - reported);
+      result.lineCount = tokens.getLineNumber();
+      return result;
+    }
+  }
+}
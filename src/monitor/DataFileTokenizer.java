@@ -0,0 +1,327 @@
+package monitor;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.NoSuchElementException;
+
+/**
+ * File: DataFileTokenizer.java
+ * Date: 18 October 2026
+ * @author Logan Hershberger
+ * Purpose: Line oriented tokenizer for the data file. Reads the file through a large NIO buffer
+ *          and parses ints and doubles directly from the buffered bytes, so only tokens that are
+ *          kept as names or skills are ever turned into Strings.
+ */
+public class DataFileTokenizer implements Closeable {
+
+  private static final int DEFAULT_BUFFER_SIZE = 1 << 20;
+  // exact powers of ten used by the fast double path
+  private static final double[] POWERS_OF_TEN = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8,
+          1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+  private final FileChannel channel;
+  private final boolean ownsChannel;
+  private long filePos;
+  private final long fileEnd;
+  private byte[] buf;
+  private ByteBuffer byteBuffer;
+  private int limit;          // number of valid bytes in buf
+  private int lineEnd;        // end of the current line (exclusive)
+  private int next;           // start of the next line
+  private int pos;            // cursor within the current line
+  private int lineNumber;
+  private long lineOffset;    // file offset of the current line
+  private int lineLength;     // length of the current line without its terminator
+  private boolean eof;
+
+  /**
+   * Opens a tokenizer over the whole data file
+   * @param file data file to read
+   * @throws IOException if the file cannot be opened
+   */
+  public DataFileTokenizer(File file) throws IOException {
+    this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+    this.ownsChannel = true;
+    this.fileEnd = Long.MAX_VALUE;
+    this.buf = new byte[DEFAULT_BUFFER_SIZE];
+    this.byteBuffer = ByteBuffer.wrap(buf);
+  }
+
+  /**
+   * Creates a tokenizer over a range of an already open file. The range should start at the
+   * beginning of a line. The channel is only read with positional reads, so several tokenizers
+   * may share it, and it is not closed with the tokenizer.
+   * @param channel open channel of the data file
+   * @param start offset of the first byte of the range
+   * @param end offset one past the last byte of the range
+   */
+  public DataFileTokenizer(FileChannel channel, long start, long end) {
+    this.channel = channel;
+    this.ownsChannel = false;
+    this.filePos = start;
+    this.fileEnd = end;
+    this.buf = new byte[(int) Math.max(1024, Math.min(DEFAULT_BUFFER_SIZE, end - start))];
+    this.byteBuffer = ByteBuffer.wrap(buf);
+  }
+
+  /**
+   * Advances to the next line of the file
+   * @return false if the end of the file has been reached
+   * @throws IOException if the file cannot be read
+   */
+  public boolean nextLine() throws IOException {
+    int start = next;
+    int nl = indexOfNewline(start);
+    while (nl < 0 && !eof) {
+      // the line continues past the buffered bytes, shift it to the front and read more
+      start = compact(start);
+      fill();
+      nl = indexOfNewline(start);
+    }
+
+    if (nl < 0) {
+      if (start >= limit) {
+        return false;
+      }
+      // last line of the file has no line terminator
+      nl = limit;
+    }
+
+    lineNumber++;
+    lineOffset = filePos - (limit - start);
+    lineLength = nl - start;
+    pos = start;
+    lineEnd = nl;
+    next = nl + 1;
+    return true;
+  }
+
+  // Returns the current line number, starting at 1 for the first line of the file
+  public int getLineNumber() {
+    return lineNumber;
+  }
+
+  // Returns the file offset of the start of the current line
+  public long getLineOffset() {
+    return lineOffset;
+  }
+
+  // Returns the length in bytes of the current line, not counting the line terminator
+  public int getLineLength() {
+    return lineLength;
+  }
+
+  // Returns the file offset of the start of the next line
+  public long getPosition() {
+    return filePos - (limit - Math.min(next, limit));
+  }
+
+  /**
+   * Checks for another token on the current line
+   * @return true if the current line has at least one more token
+   */
+  public boolean hasNext() {
+    skipWhitespace();
+    return pos < lineEnd;
+  }
+
+  /**
+   * Returns the next token on the current line as a String
+   * @return next token
+   * @throws NoSuchElementException if the line has no more tokens
+   */
+  public String next() {
+    int start = tokenStart();
+    int end = tokenEnd(start);
+    pos = end;
+    return new String(buf, start, end - start, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Skips the next token on the current line without creating a String for it
+   * @throws NoSuchElementException if the line has no more tokens
+   */
+  public void skip() {
+    pos = tokenEnd(tokenStart());
+  }
+
+  /**
+   * Parses the next token on the current line as an int
+   * @return parsed value
+   * @throws NumberFormatException if the token is not a valid int
+   * @throws NoSuchElementException if the line has no more tokens
+   */
+  public int nextInt() {
+    int start = tokenStart();
+    int end = tokenEnd(start);
+    pos = end;
+
+    int i = start;
+    boolean negative = false;
+    if (buf[i] == '-' || buf[i] == '+') {
+      negative = buf[i] == '-';
+      i++;
+    }
+    if (i == end) {
+      throw invalidNumber(start, end);
+    }
+
+    // accumulate negatively so Integer.MIN_VALUE can be represented
+    long value = 0;
+    for (; i < end; i++) {
+      int d = buf[i] - '0';
+      if (d < 0 || d > 9) {
+        throw invalidNumber(start, end);
+      }
+      value = value * 10 - d;
+      if (value < Integer.MIN_VALUE) {
+        throw invalidNumber(start, end);
+      }
+    }
+    if (!negative && value == Integer.MIN_VALUE) {
+      throw invalidNumber(start, end);
+    }
+    return (int) (negative ? value : -value);
+  }
+
+  /**
+   * Parses the next token on the current line as a double. Plain decimals with up to 15
+   * significant digits are converted in place, which gives the same result as
+   * Double.parseDouble. Anything else falls back to Double.parseDouble.
+   * @return parsed value
+   * @throws NumberFormatException if the token is not a valid double
+   * @throws NoSuchElementException if the line has no more tokens
+   */
+  public double nextDouble() {
+    int start = tokenStart();
+    int end = tokenEnd(start);
+    pos = end;
+
+    int i = start;
+    boolean negative = false;
+    if (buf[i] == '-' || buf[i] == '+') {
+      negative = buf[i] == '-';
+      i++;
+    }
+
+    long mantissa = 0;
+    int digits = 0;
+    int fractionDigits = 0;
+    boolean seenPoint = false;
+    boolean seenDigit = false;
+    boolean fast = true;
+    for (; i < end && fast; i++) {
+      byte b = buf[i];
+      if (b >= '0' && b <= '9') {
+        mantissa = mantissa * 10 + (b - '0');
+        seenDigit = true;
+        if (mantissa != 0) {
+          digits++;
+        }
+        if (seenPoint) {
+          fractionDigits++;
+        }
+      } else if (b == '.' && !seenPoint) {
+        seenPoint = true;
+      } else {
+        fast = false;
+      }
+    }
+
+    if (!fast || !seenDigit || digits > 15 || fractionDigits >= POWERS_OF_TEN.length) {
+      return Double.parseDouble(new String(buf, start, end - start, StandardCharsets.UTF_8));
+    }
+
+    double value = mantissa / POWERS_OF_TEN[fractionDigits];
+    return negative ? -value : value;
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (ownsChannel) {
+      channel.close();
+    }
+  }
+
+  // moves the cursor past any whitespace on the current line
+  private void skipWhitespace() {
+    while (pos < lineEnd && isWhitespace(buf[pos])) {
+      pos++;
+    }
+  }
+
+  // returns the start of the next token, or throws if the line is exhausted
+  private int tokenStart() {
+    skipWhitespace();
+    if (pos >= lineEnd) {
+      throw new NoSuchElementException("No more tokens on line " + lineNumber);
+    }
+    return pos;
+  }
+
+  // returns the end (exclusive) of the token beginning at start
+  private int tokenEnd(int start) {
+    int end = start;
+    while (end < lineEnd && !isWhitespace(buf[end])) {
+      end++;
+    }
+    return end;
+  }
+
+  private NumberFormatException invalidNumber(int start, int end) {
+    return new NumberFormatException("For input string: \""
+            + new String(buf, start, end - start, StandardCharsets.UTF_8) + "\"");
+  }
+
+  private int indexOfNewline(int from) {
+    for (int i = from; i < limit; i++) {
+      if (buf[i] == '\n') {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  // discards consumed bytes, growing the buffer when a single line fills it, and returns the new
+  // start of the partial line
+  private int compact(int start) {
+    int remaining = limit - start;
+    if (start == 0 && remaining == buf.length) {
+      byte[] larger = new byte[buf.length * 2];
+      System.arraycopy(buf, 0, larger, 0, remaining);
+      buf = larger;
+      byteBuffer = ByteBuffer.wrap(buf);
+    } else {
+      System.arraycopy(buf, start, buf, 0, remaining);
+    }
+    limit = remaining;
+    next = 0;
+    return 0;
+  }
+
+  // reads more of the file into the free space at the end of the buffer
+  private void fill() throws IOException {
+    byteBuffer.clear();
+    byteBuffer.position(limit);
+    if (fileEnd - filePos < byteBuffer.remaining()) {
+      byteBuffer.limit(limit + (int) (fileEnd - filePos));
+    }
+    int n = (filePos < fileEnd) ? channel.read(byteBuffer, filePos) : -1;
+    if (n < 0) {
+      eof = true;
+    } else {
+      filePos += n;
+      limit += n;
+    }
+  }
+
+  // matches the ASCII whitespace accepted by Scanner's default delimiter
+  private static boolean isWhitespace(byte b) {
+    return b == ' ' || b == '\t' || b == '\r' || b == '\f' || b == 0x0B;
+  }
+}
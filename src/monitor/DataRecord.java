@@ -0,0 +1,116 @@
+package monitor;
+
+import java.util.ArrayList;
+import java.util.NoSuchElementException;
+
+/**
+ * File: DataRecord.java
+ * Date: 18 October 2026
+ * @author Logan Hershberger
+ * Purpose: Unlinked contents of a single line of the data file. Records are produced by the
+ *          parse phase of the loader and linked to their parents by index afterwards.
+ */
+public class DataRecord {
+
+  enum Type {PORT, DOCK, PASSENGER_SHIP, CARGO_SHIP, PERSON, JOB}
+
+  Type type;            // null if the line could not be parsed
+  int line;
+  long offset;          // file offset of the line
+  int length;           // length of the line in bytes
+  String name;
+  int index;
+  int parent;
+  double[] values;      // ship dimensions and cargo/passenger data, or job duration
+  String[] skills;      // person skill or job requirements
+
+  DataRecord(Type type, int line) {
+    this.type = type;
+    this.line = line;
+  }
+
+  // creates a record marking a line that does not follow the data file format
+  static DataRecord invalid(int line) {
+    return new DataRecord(null, line);
+  }
+
+  boolean isValid() {
+    return type != null;
+  }
+
+  /**
+   * Parses the remainder of the tokenizer's current line into a record
+   * @param keyword first token of the line
+   * @param tokens tokenizer positioned after the keyword
+   * @return the parsed record, or null if the line is a comment
+   * @throws NumberFormatException if a numeric field is malformed
+   * @throws NoSuchElementException if a required field is missing
+   * @throws IllegalArgumentException if the keyword is not a known object type
+   */
+  static DataRecord parse(String keyword, DataFileTokenizer tokens) {
+    DataRecord r;
+    switch (keyword) {
+      case "//":
+        return null;
+      case "port":
+        r = new DataRecord(Type.PORT, tokens.getLineNumber());
+        r.name = tokens.next();
+        r.index = tokens.nextInt();
+        break;
+      case "dock":
+        r = new DataRecord(Type.DOCK, tokens.getLineNumber());
+        r.name = tokens.next();
+        r.index = tokens.nextInt();
+        r.parent = tokens.nextInt();
+        break;
+      case "pship":
+        r = parseShip(Type.PASSENGER_SHIP, tokens);
+        r.values[4] = tokens.nextInt();
+        r.values[5] = tokens.nextInt();
+        r.values[6] = tokens.nextInt();
+        break;
+      case "cship":
+        r = parseShip(Type.CARGO_SHIP, tokens);
+        r.values[4] = tokens.nextDouble();
+        r.values[5] = tokens.nextDouble();
+        r.values[6] = tokens.nextDouble();
+        break;
+      case "person":
+        r = new DataRecord(Type.PERSON, tokens.getLineNumber());
+        r.name = tokens.next();
+        r.index = tokens.nextInt();
+        r.parent = tokens.nextInt();
+        r.skills = new String[] {tokens.next()};
+        break;
+      case "job":
+        r = new DataRecord(Type.JOB, tokens.getLineNumber());
+        r.name = tokens.next();
+        r.index = tokens.nextInt();
+        r.parent = tokens.nextInt();
+        r.values = new double[] {tokens.nextDouble()};
+        ArrayList<String> requirements = new ArrayList<>();
+        while (tokens.hasNext()) {
+          requirements.add(tokens.next());
+        }
+        r.skills = requirements.toArray(new String[0]);
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown object type: " + keyword);
+    }
+    return r;
+  }
+
+  // parses the fields shared by passenger and cargo ships
+  private static DataRecord parseShip(Type type, DataFileTokenizer tokens) {
+    DataRecord r = new DataRecord(type, tokens.getLineNumber());
+    r.name = tokens.next();
+    r.index = tokens.nextInt();
+    r.parent = tokens.nextInt();
+    r.values = new double[7];
+    r.values[0] = tokens.nextDouble();    // weight
+    r.values[1] = tokens.nextDouble();    // length
+    r.values[2] = tokens.nextDouble();    // width
+    r.values[3] = tokens.nextDouble();    // draft
+    return r;
+  }
+}
@@ -1,8 +1,5 @@
 package monitor;
 
-import java.util.Map;
-import java.util.Scanner;
-
 /**
  * File: Dock.java
  * Date: 27 May 2019
@@ -13,11 +10,11 @@ public class Dock extends Thing {
   Ship ship;
   Port port;
 
-  public Dock(Scanner sc, Map<Integer, Port> hmp, Map<Integer, Dock> hmd){
-    super(sc);
-    hmd.put(sc.nextInt(),this);
-    port = hmp.get(sc.nextInt());
+  public Dock(DataRecord record, World world){
+    super(record);
+    port = world.registry.getPort(record.parent);
     port.docks.add(this);
+    world.registry.register(this);
   }
 
   public String toString(){
@@ -31,10 +28,15 @@ public class Dock extends Thing {
     return ship;
   }
 
-  // tell ship to dock and update ship reference
-  void assignShip(Ship s){
-    s.dock(this);
+  // update ship reference and tell ship to dock, which starts its jobs. Returns false, leaving the
+  // dock empty, if the ship has already left.
+  boolean assignShip(Ship s){
     ship = s;
+    if(!s.dock(this)){
+      ship = null;
+      return false;
+    }
+    return true;
   }
 
   // clears ship reference and notifies port that its ship has departed
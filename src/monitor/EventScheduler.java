@@ -0,0 +1,136 @@
+package monitor;
+
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * File: EventScheduler.java
+ * Date: 18 October 2026
+ * @author Logan Hershberger
+ * Purpose: Discrete event engine for the jobs of a World. Events are kept in a priority queue
+ *          ordered by their time on a virtual clock, and a single thread runs them one at a time,
+ *          moving the clock forward to each event's time. Nothing sleeps, so a world runs as
+ *          fast as the events can be processed. Events with the same time run in the order they
+ *          were scheduled.
+ */
+public class EventScheduler {
+
+  private static class Event implements Comparable<Event> {
+    final long time;
+    final long sequence;
+    final Runnable task;
+
+    Event(long time, long sequence, Runnable task) {
+      this.time = time;
+      this.sequence = sequence;
+      this.task = task;
+    }
+
+    @Override
+    public int compareTo(Event other) {
+      if (time != other.time) {
+        return Long.compare(time, other.time);
+      }
+      return Long.compare(sequence, other.sequence);
+    }
+  }
+
+  private final PriorityQueue<Event> events = new PriorityQueue<>();   // guarded by this
+  private long nextSequence;
+  private volatile long now;          // virtual time in milliseconds
+  private boolean stopped;
+  private int holds;                  // events only run while there are no holds
+  private final Thread thread;
+
+  /**
+   * Creates the engine and starts the thread that runs its events
+   * @param name name of the event thread
+   */
+  public EventScheduler(String name) {
+    thread = new Thread(this::runEvents, name);
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /**
+   * Schedules a task on the virtual clock
+   * @param task task to run on the event thread
+   * @param delay virtual milliseconds from the current time
+   */
+  synchronized void schedule(Runnable task, long delay) {
+    if (stopped) {
+      return;
+    }
+    events.add(new Event(now + Math.max(0, delay), nextSequence++, task));
+    notifyAll();
+  }
+
+  // returns the current virtual time in milliseconds, starting at 0
+  long currentTimeMillis() {
+    return now;
+  }
+
+  // returns the number of events waiting to run
+  synchronized int getPendingCount() {
+    return events.size();
+  }
+
+  /**
+   * Stops running events until release is called, after the event running now. Tasks scheduled
+   * while held all start at the same virtual time.
+   */
+  synchronized void hold() {
+    holds++;
+  }
+
+  // lets events run again after hold
+  synchronized void release() {
+    holds--;
+    notifyAll();
+  }
+
+  // stops the event thread, events not yet run are dropped
+  synchronized void shutdown() {
+    stopped = true;
+    events.clear();
+    notifyAll();
+  }
+
+  /**
+   * Waits for the event thread to end after shutdown
+   * @param timeoutNanos longest time to wait
+   * @return true if the thread has ended
+   * @throws InterruptedException if the calling thread is interrupted while waiting
+   */
+  boolean awaitTermination(long timeoutNanos) throws InterruptedException {
+    TimeUnit.NANOSECONDS.timedJoin(thread, Math.max(1, timeoutNanos));
+    return !thread.isAlive();
+  }
+
+  // takes the earliest event, advances the clock to it and runs it, until shut down
+  private void runEvents() {
+    while (true) {
+      Event event;
+      synchronized (this) {
+        while ((events.isEmpty() || holds > 0) && !stopped) {
+          try {
+            wait();
+          } catch (InterruptedException e) {
+            // only shutdown ends the thread
+          }
+        }
+        if (stopped) {
+          return;
+        }
+        event = events.poll();
+        now = event.time;
+      }
+      try {
+        event.task.run();
+      } catch (RuntimeException e) {
+        // one failing job must not stop the others
+        thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+      }
+    }
+  } // end of runEvents
+}
@@ -1,8 +1,7 @@
 package monitor;
 
-import java.util.ArrayList;
-import java.util.Map;
-import java.util.Scanner;
+import java.util.Arrays;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * File: Job.java
@@ -12,130 +11,364 @@ import java.util.Scanner;
  */
 public class Job extends Thing implements Runnable{
   private double duration;
-  ArrayList<String> requirements = new ArrayList<>();
+  int[] requirements;        // skill ids from the world's skill table
+  // requirement profile built once from requirements: the distinct skill ids in id order and
+  // the number of workers of each the job needs
+  final int[] requiredSkills;
+  final int[] requiredCounts;
+  final long skillMask;      // bit (id % 64) of each required skill, for a quick check by the port
   Ship ship;
   private Port port;
-  private boolean goFlag;
-  private boolean killFlag;
+  private volatile boolean goFlag;
+  private volatile boolean killFlag;
   enum Status {RUNNING, SUSPENDED, WAITINGTODOCK, DONE, CANCELLED, LACKOFRESOURCES,
     WAITINGFORRESOURCES}
   private int progress;
-  private Status status;
+  private volatile Status status;    // changed by setStatus, which keeps the counts
+
+  // steps of a job once its ship has docked, the job can give up its thread between steps
+  private enum Phase {WAITINGFORRESOURCES, RUNNING}
+  private static final long PARKED = -1;       // step result, waiting to be resumed
+  private static final long FINISHED = -2;     // step result, the job has ended
+  private Phase phase = Phase.WAITINGFORRESOURCES;
+  private boolean activated;        // started or cancelled before starting, guarded by the ship
+  private volatile JobExecutor executor;
+  private volatile Thread thread;
+  private volatile boolean resumed;
+  // simulated times of the running phase, guarded by this
+  private boolean running;
+  private long runStart;            // time the job started running
+  private long suspendedTime;       // time spent suspended in earlier suspensions
+  private long suspendStart = -1;   // start of the current suspension, -1 if not suspended
+  private boolean suspendParked;    // parked while suspended, resumed by toggleGoFlag or kill
+  // set by the port's allocator when it hands the job its workers while the job waits
+  volatile boolean workersGranted;
+  int passedOver;                   // times later jobs got workers first, guarded by the port
 
 
   /**
-   * Constructs a job using the line scanner for the data file.
-   * Links to the proper ship and adds itself to the Jobs table.
-   * @param sc token Scanner with Job data
-   * @param hms hashmap of all current ships
-   * @param table the program's jobs table
+   * Constructs a job from its parsed data file record and links it to the proper ship.
+   * @param record parsed Job data
+   * @param world world whose registry holds the job's ship
    */
-  public Job(Scanner sc, Map<Integer, Ship> hms, JobTable table){
-    super(sc);
-    sc.nextInt();
-    ship = hms.get(sc.nextInt());
+  public Job(DataRecord record, World world){
+    super(record);
+    ship = world.registry.getShip(record.parent);
     ship.jobs.add(this);
     port = ship.port;
-    duration = Double.parseDouble(sc.next());
-    while(sc.hasNext()){
-      requirements.add(sc.next());
+    duration = record.values[0];
+    requirements = new int[record.skills.length];
+    for(int i = 0; i < requirements.length; i++){
+      requirements[i] = world.skills.intern(record.skills[i]);
+    }
+    int[] sorted = requirements.clone();
+    Arrays.sort(sorted);
+    int distinct = 0;
+    for(int i = 0; i < sorted.length; i++){
+      if(i == 0 || sorted[i] != sorted[i - 1]){
+        distinct++;
+      }
+    }
+    requiredSkills = new int[distinct];
+    requiredCounts = new int[distinct];
+    long mask = 0;
+    for(int i = 0, d = -1; i < sorted.length; i++){
+      if(i == 0 || sorted[i] != sorted[i - 1]){
+        requiredSkills[++d] = sorted[i];
+        mask |= 1L << sorted[i];
+      }
+      requiredCounts[d]++;
     }
+    skillMask = mask;
+    world.registry.register(this);
     goFlag = true;
     killFlag = false;
     progress = 0;
     status = Status.WAITINGTODOCK;
-    table.addJob(this);
-    (new Thread(this)).start();
+    port.jobCounts.add(status);
+    world.jobCounts.add(status);
   }
 
 
   /**
-   * When a new thread is run, method waits until a ship is docked then the Job progresses for
-   * the full duration. Status is updated as job progresses and when finished it waits until the
-   * ship departs to update the ship location in the jobs table.
+   * Marks the job as leaving its inactive state, called by the ship with its lock held when it
+   * starts its jobs or when the job is cancelled
+   * @return true if the job was inactive, false if it was already started or cancelled
    */
-  public void run(){
-    long time;
-    long startTime;
-    long stopTime;
-    double durationMillis = 1000*duration;
-
-    // wait until ship is docked
-    synchronized (ship) {
-      try {
-        if ((ship.dock == null) && !killFlag) {
-          ship.wait();
-        }
-      } catch (InterruptedException e){}
+  boolean activate(){
+    if(activated){
+      return false;
+    }
+    activated = true;
+    return true;
+  }
+
+  /**
+   * Starts the job on the world's executor, called once its ship is docked and the whole world
+   * has been built. Until then the job is only data and holds no thread.
+   * @param executor executor that runs the job and any later continuation of it
+   */
+  void start(JobExecutor executor){
+    this.executor = executor;
+    executor.start(this);
+  }
+
+  /**
+   * Continues a job that parked itself waiting for workers or to be resumed after a
+   * suspension. Called by the port the job registered with, or by toggleGoFlag or kill, once
+   * for each time the job parked.
+   */
+  void resume(){
+    port.world.recordJobResumed();
+    if(executor.isBlocking()){
+      resumed = true;
+      LockSupport.unpark(thread);
+    } else {
+      executor.execute(this);
     }
+  }
+
 
-    while(!ship.initiateJob(this) && !killFlag) {
-      synchronized (getPort()) {
-        try {
-          status = Status.WAITINGFORRESOURCES;
-          getPort().wait();
-        } catch (InterruptedException e) {
+  /**
+   * Runs the job's steps once its ship is docked: it waits until its workers are available,
+   * then the Job runs until its deadline, which suspending the job moves later. While waiting,
+   * the job is registered with its port, and a suspended job parks until it is resumed or
+   * killed. A job with its own thread parks
+   * that thread until it is resumed; a job on the pool returns its thread and is submitted
+   * again when resumed. Progress is not updated while the job runs, it is computed from the
+   * clock when read.
+   */
+  public void run(){
+    thread = Thread.currentThread();
+    while(true){
+      long next = step();
+      if(next == FINISHED){
+        return;
+      }
+      if(next == PARKED){
+        if(!executor.isBlocking()){
+          // resume() submits the job again, nothing may touch it from here
+          return;
+        }
+        while(!resumed){
+          LockSupport.park(this);
         }
+        resumed = false;
+      } else if(!executor.sleep(this, next)){
+        // scheduled to run the next step on the pool, a kill() that came before the job was
+        // scheduled could not wake it
+        if(killFlag){
+          executor.wake(this);
+        }
+        return;
       }
     }
+  }
 
-    try {
-      time = System.currentTimeMillis();
-      startTime = time;
-      stopTime = (long) (time + durationMillis);
+  // runs until the job must wait, returns the delay before the next step, PARKED or FINISHED
+  private long step(){
+    if(phase == Phase.WAITINGFORRESOURCES){
+      if(!killFlag && !ship.initiateJob(this)){
+        // the port set the status and resumes the job when a worker returns
+        return PARKED;
+      }
+      if(killFlag){
+        // cancelled while waiting
+        finish();
+        return FINISHED;
+      }
+      port.world.recordJobStarted();
+      phase = Phase.RUNNING;
+      startRunning();
+    }
+    // running until the deadline
+    long delay = getDelayToDeadline();
+    if(delay == PARKED){
+      // suspended, toggleGoFlag or kill resumes the job
+      return PARKED;
+    }
+    if(delay > 0){
+      // woken early by kill() or a change of clock speed, or the deadline moved
+      return delay;
+    }
+    finish();
+    return FINISHED;
+  }
 
-      while (time < stopTime && !killFlag) {
+  // starts the running phase, the job may have been suspended before it got its workers
+  private synchronized void startRunning(){
+    running = true;
+    runStart = executor.currentTimeMillis();
+    suspendedTime = 0;
+    suspendStart = goFlag ? -1 : runStart;
+    setStatus(goFlag ? Status.RUNNING : Status.SUSPENDED);
+  }
 
-        int delay = (SeaPortMonitor.testMode) ? 10 : 100;       // speed up for testing
-        Thread.sleep(delay);
+  // returns how long to sleep before checking the job again, 0 once it is done or killed, or
+  // PARKED if it is suspended
+  private synchronized long getDelayToDeadline(){
+    if(killFlag){
+      return 0;
+    }
+    if(!goFlag){
+      suspendParked = true;
+      return PARKED;
+    }
+    long deadline = runStart + suspendedTime + getTotalTime();
+    return (executor.currentTimeMillis() < deadline) ? executor.delayUntil(deadline) : 0;
+  }
 
-        // progress job or suspend
-        if (goFlag) {
-          status = Status.RUNNING;
-          time += 100;
-          progress = (int) (((time - startTime) / durationMillis) * 100);
-        } else {
-          status = Status.SUSPENDED;
-        }
-      }
+  // returns the simulated milliseconds the job has run by the given time, not counting suspensions
+  private synchronized long getWorkTime(long now){
+    long suspended = suspendedTime + ((suspendStart >= 0) ? now - suspendStart : 0);
+    return Math.max(0, Math.min(getTotalTime(), now - runStart - suspended));
+  }
 
+  // sets the final status and tells the ship to remove this job
+  private void finish(){
+    synchronized (this){
+      running = false;
       // check if job was cancelled
       if (killFlag) {
         progress = 0;
         if(status != Status.LACKOFRESOURCES) {
-          status = Status.CANCELLED;
+          setStatus(Status.CANCELLED);
         }
       } else {
         progress = 100;
-        status = Status.DONE;
+        setStatus(Status.DONE);
       }
+    }
+    if(phase == Phase.WAITINGFORRESOURCES){
+      // never got its workers
+      port.skipRecordedWorkers(this);
+    }
+    ship.removeJob(this);
+    if(executor != null){
+      executor.jobFinished();
+    }
+  }
+
+  // called by the port, with the lock of the list the job waits on held, before it is registered
+  void setWaitingForResources(){
+    setStatus(Status.WAITINGFORRESOURCES);
+  }
 
-      // tell ship to remove this job
-      // true is returned if this was the last job for the ship
-      ship.removeJob(this);
+  // changes the status and the port's and world's counts of jobs in each status
+  private synchronized void setStatus(Status newStatus){
+    if(status != newStatus){
+      port.jobCounts.move(status, newStatus);
+      port.world.jobCounts.move(status, newStatus);
+      status = newStatus;
+    }
+  }
 
-    } catch (InterruptedException e){}
+  public String toString(){
+    return String.format("%-20s %-20s %-20s", "Job:", name, ship.name);
   }
 
+  // called by the port when it is loaded if it does not have the workers the job needs, the job
+  // is never started
   void cancel(){
-    kill();
-    status = Status.LACKOFRESOURCES;
+    activated = true;
+    killFlag = true;
+    setStatus(Status.LACKOFRESOURCES);
   }
 
-  int getProgress(){
+  // returns the names of the required skills in data file order
+  String[] getRequirementNames(){
+    String[] names = new String[requirements.length];
+    for(int i = 0; i < names.length; i++){
+      names[i] = port.getSkillName(requirements[i]);
+    }
+    return names;
+  }
+
+  double getDuration(){
+    return duration;
+  }
+
+  // returns the percent of the job done, computed from the clock while it runs
+  synchronized int getProgress(){
+    if(running){
+      return (int) (getWorkTime(executor.currentTimeMillis()) * 100 / Math.max(1, getTotalTime()));
+    }
     return progress;
   }
 
+  // returns the simulated milliseconds the job needs to run in total
+  long getTotalTime(){
+    return (long) (1000*duration);
+  }
+
+  // returns the simulated milliseconds of work left
+  synchronized long getRemainingTime(){
+    if(running){
+      return getTotalTime() - getWorkTime(executor.currentTimeMillis());
+    }
+    return (status == Status.DONE) ? 0 : getTotalTime();
+  }
+
   Status getStatus(){
     return status;
   }
 
+  // suspends or resumes the job, a running job's deadline moves later by the time suspended
   void toggleGoFlag(){
-    goFlag = !goFlag;
+    synchronized (this){
+      goFlag = !goFlag;
+      if(running){
+        long now = executor.currentTimeMillis();
+        if(goFlag){
+          suspendedTime += now - suspendStart;
+          suspendStart = -1;
+          setStatus(Status.RUNNING);
+        } else {
+          suspendStart = now;
+          setStatus(Status.SUSPENDED);
+        }
+      }
+      if(!goFlag || !suspendParked){
+        // a job suspended while sleeping parks when it wakes at its old deadline
+        return;
+      }
+      suspendParked = false;
+    }
+    resume();
   }
 
+  /**
+   * Cancels the job in any state. A job whose ship has not docked ends at once without being
+   * started. A job waiting for workers or to be resumed is taken off the port's list and
+   * continues, and a running job sleeping until its deadline is woken. The job then ends as
+   * CANCELLED within one step, returning any workers it holds.
+   */
   void kill(){
     killFlag = true;
+    if(ship.cancelInactiveJob(this)){
+      finish();
+    } else if(port.cancelResourceWait(this) || takeSuspendParked()){
+      resume();
+    } else if(executor != null){
+      // a running job sleeping until its deadline ends now
+      executor.wake(this);
+      if(executor.isBlocking()){
+        // the permit also ends a sleep the job is about to start
+        LockSupport.unpark(thread);
+      }
+    }
+  }
+
+  boolean isKilled(){
+    return killFlag;
+  }
+
+  // returns true if the job is parked while suspended and clears the flag, so only one caller
+  // resumes it
+  private synchronized boolean takeSuspendParked(){
+    boolean parked = suspendParked;
+    suspendParked = false;
+    return parked;
   }
 
   Port getPort(){
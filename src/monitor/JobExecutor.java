@@ -0,0 +1,361 @@
+package monitor;
+
+import java.lang.reflect.Method;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * File: JobExecutor.java
+ * Date: 18 October 2026
+ * @author Logan Hershberger
+ * Purpose: Runs the jobs of a World. In the two blocking modes every job has a thread of its own,
+ *          either a platform thread as the program originally used or a virtual thread, and a
+ *          job parks its thread while it waits. In the pool mode a fixed number of platform
+ *          threads run every job, a waiting job gives its thread back and is submitted again
+ *          when it can continue, and a running job is scheduled to continue at its deadline
+ *          rather than sleeping. A job waiting for its deadline can be woken early, which is
+ *          done when it is cancelled and, for every such job, when the clock speed changes.
+ *
+ *          In the event mode the jobs run as events of an EventScheduler on a virtual clock,
+ *          one at a time and without sleeping, so a world runs as fast as the CPU allows.
+ *
+ *          The mode is chosen with the system property monitor.executor (pool, virtual, thread
+ *          or event). Virtual threads need Java 21, older runtimes use the pool instead.
+ */
+public class JobExecutor {
+
+  public enum Mode {PLATFORM_POOL, VIRTUAL, THREAD_PER_JOB, EVENT}
+
+  // pool task that continues a job at its deadline. It is registered before it is scheduled, and
+  // whichever of the task and wake takes it out of scheduledJobs runs the job.
+  private class ScheduledJob implements Runnable {
+    final Runnable job;
+    volatile ScheduledFuture<?> future;     // null until scheduled
+
+    ScheduledJob(Runnable job) {
+      this.job = job;
+    }
+
+    @Override
+    public void run() {
+      if (scheduledJobs.remove(job, this)) {
+        job.run();
+      }
+    }
+  }
+
+  private final Mode mode;
+  private final ScheduledThreadPoolExecutor pool;     // PLATFORM_POOL only
+  private final ExecutorService virtualThreads;       // VIRTUAL only
+  private final EventScheduler events;                // EVENT only
+  private final AtomicInteger threadCount = new AtomicInteger();
+  private final SimulationClock clock = new SimulationClock();
+  // jobs waiting for a deadline, with the pool task that continues them or the thread they are
+  // sleeping on
+  private final ConcurrentHashMap<Runnable, ScheduledJob> scheduledJobs =
+          new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<Runnable, Thread> sleepingJobs = new ConcurrentHashMap<>();
+  private final Set<Thread> jobThreads = ConcurrentHashMap.newKeySet();   // THREAD_PER_JOB only
+  private int activeJobs;       // jobs started and not yet finished, guarded by this
+
+  /**
+   * Creates an executor, sizing the pool to the number of processors
+   * @param mode how jobs are run, VIRTUAL falls back to PLATFORM_POOL before Java 21
+   */
+  public JobExecutor(Mode mode) {
+    this(mode, Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Creates an executor
+   * @param mode how jobs are run, VIRTUAL falls back to PLATFORM_POOL before Java 21
+   * @param poolSize number of threads in PLATFORM_POOL mode
+   */
+  public JobExecutor(Mode mode, int poolSize) {
+    ExecutorService virtual = (mode == Mode.VIRTUAL) ? newVirtualThreadExecutor() : null;
+    if (mode == Mode.VIRTUAL && virtual == null) {
+      mode = Mode.PLATFORM_POOL;
+    }
+    this.mode = mode;
+    this.virtualThreads = virtual;
+
+    if (mode == Mode.PLATFORM_POOL) {
+      pool = new ScheduledThreadPoolExecutor(Math.max(1, poolSize), daemonThreads("job-pool-"));
+      pool.setRemoveOnCancelPolicy(true);
+      // idle threads of a finished world end on their own
+      pool.setKeepAliveTime(10, TimeUnit.SECONDS);
+      pool.allowCoreThreadTimeOut(true);
+    } else {
+      pool = null;
+    }
+    events = (mode == Mode.EVENT) ? new EventScheduler("job-events") : null;
+    // sleeping jobs recompute their deadlines at the new speed
+    clock.setSpeedListener(this::wakeAll);
+  }
+
+  /**
+   * Creates an executor in the mode named by the monitor.executor system property, using
+   * virtual threads when it is not set
+   * @return the new executor
+   */
+  public static JobExecutor fromSystemProperty() {
+    switch (System.getProperty("monitor.executor", "virtual")) {
+      case "pool":
+        return new JobExecutor(Mode.PLATFORM_POOL);
+      case "thread":
+        return new JobExecutor(Mode.THREAD_PER_JOB);
+      case "event":
+        return new JobExecutor(Mode.EVENT);
+      default:
+        return new JobExecutor(Mode.VIRTUAL);
+    }
+  }
+
+  public Mode getMode() {
+    return mode;
+  }
+
+  // returns the number of tasks the pool has run, 0 outside PLATFORM_POOL mode
+  long getCompletedTaskCount() {
+    return (pool == null) ? 0 : pool.getCompletedTaskCount();
+  }
+
+  // returns true if each job keeps one thread and waits by blocking it
+  boolean isBlocking() {
+    return mode != Mode.PLATFORM_POOL && mode != Mode.EVENT;
+  }
+
+  // returns true if job time is kept on a virtual clock instead of the wall clock
+  boolean isVirtualTime() {
+    return mode == Mode.EVENT;
+  }
+
+  // returns the clock that sets the speed of jobs in every mode except EVENT
+  public SimulationClock getClock() {
+    return clock;
+  }
+
+  /**
+   * Returns the time jobs measure their progress against
+   * @return the virtual time in EVENT mode, otherwise the simulated time of the clock, in
+   *         milliseconds
+   */
+  long currentTimeMillis() {
+    return (events != null) ? events.currentTimeMillis() : clock.currentTimeMillis();
+  }
+
+  /**
+   * Returns how long a job sleeps to wake up at a given time
+   * @param time simulated time to wake up at, later than the current time
+   * @return the length of the sleep, in virtual milliseconds in EVENT mode and otherwise in wall
+   *         clock milliseconds at the current speed
+   */
+  long delayUntil(long time) {
+    long remaining = time - currentTimeMillis();
+    if (mode == Mode.EVENT) {
+      return Math.max(1, remaining);
+    }
+    return Math.max(1, clock.toWallMillis(remaining));
+  }
+
+  /**
+   * Runs a job for the first time, counting it as active until jobFinished is called
+   * @param job job to run
+   */
+  void start(Runnable job) {
+    synchronized (this) {
+      activeJobs++;
+    }
+    execute(job);
+  }
+
+  // called by a started job when it ends
+  synchronized void jobFinished() {
+    activeJobs--;
+    notifyAll();
+  }
+
+  /**
+   * Runs a job. In the blocking modes this starts the job's own thread, in the pool mode the job
+   * is queued for the next free pool thread, and in the event mode it is scheduled at the current
+   * virtual time.
+   * @param job job to run or continue
+   */
+  void execute(Runnable job) {
+    switch (mode) {
+      case PLATFORM_POOL:
+        pool.execute(job);
+        break;
+      case VIRTUAL:
+        virtualThreads.execute(job);
+        break;
+      case THREAD_PER_JOB:
+        Thread t = new Thread(() -> {
+          try {
+            job.run();
+          } finally {
+            jobThreads.remove(Thread.currentThread());
+          }
+        }, "job-" + threadCount.incrementAndGet());
+        jobThreads.add(t);
+        t.start();
+        break;
+      case EVENT:
+        events.schedule(job, 0);
+        break;
+    }
+  }
+
+  /**
+   * Pauses a job until its deadline or until it is woken. The job must check its deadline again
+   * when it continues, since it may be woken early.
+   * @param job the job pausing
+   * @param millis length of the pause
+   * @return true if the calling thread slept and the job should continue on it, false if the
+   *         job was scheduled to run again and the calling thread must return
+   */
+  boolean sleep(Runnable job, long millis) {
+    if (mode == Mode.PLATFORM_POOL) {
+      ScheduledJob task = new ScheduledJob(job);
+      scheduledJobs.put(job, task);
+      task.future = pool.schedule(task, millis, TimeUnit.MILLISECONDS);
+      return false;
+    }
+    if (mode == Mode.EVENT) {
+      events.schedule(job, millis);
+      return false;
+    }
+    sleepingJobs.put(job, Thread.currentThread());
+    LockSupport.parkNanos(job, TimeUnit.MILLISECONDS.toNanos(millis));
+    sleepingJobs.remove(job);
+    return true;
+  }
+
+  /**
+   * Continues a job sleeping until its deadline right away, so it sees a change to its flags
+   * or to the clock. Does nothing if the job is not sleeping, or in EVENT mode where jobs
+   * are continued in virtual time.
+   * @param job job to wake
+   */
+  void wake(Runnable job) {
+    if (mode == Mode.PLATFORM_POOL) {
+      ScheduledJob task = scheduledJobs.remove(job);
+      // the task no longer runs the job once it is out of the map, cancelling it only frees the
+      // pool's queue. A task not scheduled yet finds itself gone when it runs.
+      if (task != null) {
+        ScheduledFuture<?> future = task.future;
+        if (future != null) {
+          future.cancel(false);
+        }
+        pool.execute(job);
+      }
+    } else if (mode != Mode.EVENT) {
+      Thread t = sleepingJobs.get(job);
+      if (t != null) {
+        LockSupport.unpark(t);
+      }
+    }
+  }
+
+  // wakes every sleeping job
+  private void wakeAll() {
+    for (Runnable job : scheduledJobs.keySet()) {
+      wake(job);
+    }
+    for (Runnable job : sleepingJobs.keySet()) {
+      wake(job);
+    }
+  }
+
+  /**
+   * Makes jobs started until endStart wait for each other, so in EVENT mode they all start at the
+   * same virtual time instead of the first ones running ahead of the rest
+   */
+  void beginStart() {
+    if (events != null) {
+      events.hold();
+    }
+  }
+
+  // lets the jobs started since beginStart run
+  void endStart() {
+    if (events != null) {
+      events.release();
+    }
+  }
+
+  /**
+   * Waits for the started jobs to finish, then shuts the executor down and waits for its
+   * threads to end. The jobs should have been killed first.
+   * @param timeoutMillis longest time to wait in total
+   * @return true if every job finished and every thread ended within the timeout
+   * @throws InterruptedException if the calling thread is interrupted while waiting
+   */
+  boolean shutdown(long timeoutMillis) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+    boolean finished;
+    synchronized (this) {
+      while (activeJobs > 0 && deadline - System.nanoTime() > 0) {
+        TimeUnit.NANOSECONDS.timedWait(this, deadline - System.nanoTime());
+      }
+      finished = activeJobs == 0;
+    }
+
+    shutdown();
+    if (pool != null) {
+      finished &= pool.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+    if (virtualThreads != null) {
+      finished &= virtualThreads.awaitTermination(deadline - System.nanoTime(),
+              TimeUnit.NANOSECONDS);
+    }
+    if (events != null) {
+      finished &= events.awaitTermination(deadline - System.nanoTime());
+    }
+    for (Thread t : jobThreads) {
+      TimeUnit.NANOSECONDS.timedJoin(t, Math.max(1, deadline - System.nanoTime()));
+      finished &= !t.isAlive();
+    }
+    return finished;
+  } // end of shutdown
+
+  // stops accepting jobs, jobs already waiting in the pool are dropped
+  void shutdown() {
+    if (pool != null) {
+      pool.shutdownNow();
+    }
+    if (virtualThreads != null) {
+      virtualThreads.shutdownNow();
+    }
+    if (events != null) {
+      events.shutdown();
+    }
+  }
+
+  // returns an executor starting one virtual thread per task, or null before Java 21
+  private static ExecutorService newVirtualThreadExecutor() {
+    try {
+      Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+      return (ExecutorService) factory.invoke(null);
+    } catch (ReflectiveOperationException e) {
+      return null;
+    }
+  }
+
+  private static ThreadFactory daemonThreads(String prefix) {
+    AtomicInteger count = new AtomicInteger();
+    return r -> {
+      Thread t = new Thread(r, prefix + count.incrementAndGet());
+      t.setDaemon(true);
+      return t;
+    };
+  }
+}
@@ -0,0 +1,68 @@
+package monitor;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * File: JobStatusCounts.java
+ * Date: 18 October 2026
+ * @author Logan Hershberger
+ * Purpose: Number of jobs in each Job.Status, kept for a port and for the whole world. Jobs
+ *          report every change of status, so the counts can be read from any thread without
+ *          walking the jobs. A count read while a job changes status may be one behind.
+ */
+public class JobStatusCounts {
+
+  private final AtomicIntegerArray counts = new AtomicIntegerArray(Job.Status.values().length);
+  private final AtomicInteger finished = new AtomicInteger();
+  private final AtomicInteger total = new AtomicInteger();
+
+  // counts a new job
+  void add(Job.Status status) {
+    counts.incrementAndGet(status.ordinal());
+    total.incrementAndGet();
+    if (isFinal(status)) {
+      finished.incrementAndGet();
+    }
+  }
+
+  // moves a job from one status to another
+  void move(Job.Status from, Job.Status to) {
+    counts.decrementAndGet(from.ordinal());
+    counts.incrementAndGet(to.ordinal());
+    if (isFinal(to) && !isFinal(from)) {
+      finished.incrementAndGet();
+    }
+  }
+
+  // returns true for the statuses a job ends in
+  static boolean isFinal(Job.Status status) {
+    return status == Job.Status.DONE || status == Job.Status.CANCELLED
+            || status == Job.Status.LACKOFRESOURCES;
+  }
+
+  public int get(Job.Status status) {
+    return counts.get(status.ordinal());
+  }
+
+  public int getTotal() {
+    return total.get();
+  }
+
+  // returns the number of jobs that are done or cancelled
+  public int getFinishedCount() {
+    return finished.get();
+  }
+
+  // returns the number of jobs that have not ended yet
+  public int getUnfinishedCount() {
+    // finished is read first, so a job finishing in between is counted as unfinished
+    int done = finished.get();
+    return total.get() - done;
+  }
+
+  // returns true once every job counted has ended
+  public boolean isAllFinished() {
+    return getUnfinishedCount() == 0;
+  }
+}
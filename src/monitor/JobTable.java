@@ -41,10 +41,12 @@ public class JobTable extends JTable implements Runnable{
   private SortColumn currentCol = null;
   private SortOrder currentOrder = null;
   private boolean jobsComplete;
-  private boolean killFlag = false;
+  private volatile boolean killFlag = false;
+  private World world;
 
   // Construct and configure table with default tablemodel
-  JobTable(){
+  JobTable(World world){
+    this.world = world;
     setModel(new JobTableModel());
     getColumn("Progress").setCellRenderer((table, value, isSelected, hasFocus, row,
             column) -> (JProgressBar) value);
@@ -79,7 +81,6 @@ public class JobTable extends JTable implements Runnable{
 
   // add a job to the data set and build its table row
   void addJob(Job job){
-    data.add(job);
     ArrayList<Object> row = new ArrayList<>();
     row.add(job.getPort().getName());
     row.add(job.getShip().getName());
@@ -90,15 +91,11 @@ public class JobTable extends JTable implements Runnable{
     else
       row.add(job.getShip().dock.getName());
 
-    String s = "";
-    for(int i=0; i<job.requirements.size(); i++){
-      s += job.requirements.get(i);
-      if((i + 1) != job.requirements.size())
-        s += ", ";
-    }
-    row.add(s);
+    row.add(String.join(", ", job.getRequirementNames()));
 
-    row.add(new JProgressBar(0));
+    JProgressBar progressBar = new JProgressBar(0);
+    progressBar.setStringPainted(true);
+    row.add(progressBar);
     row.add("Waiting...");
     JButton suspendBtn = new JButton("Suspend");
     suspendBtn.setEnabled(false);
@@ -109,7 +106,11 @@ public class JobTable extends JTable implements Runnable{
     cancelBtn.setEnabled(false);
     cancelBtn.addActionListener(e -> job.kill());
     row.add(cancelBtn);
-    rowData.put(job,row);
+    // jobs of ports loaded on demand are added while the table is updating
+    synchronized (rowData){
+      data.add(job);
+      rowData.put(job,row);
+    }
   }
 
 
@@ -156,78 +157,82 @@ public class JobTable extends JTable implements Runnable{
 
 
   /*
-   * Updates the job table every 100ms (or 10ms for test mode)
-   * Stops running when all jobs are done or cancelled
+   * Updates the job table every 100ms, whatever the simulation speed
+   * Stops running when all jobs are done or cancelled, or when interrupted
    */
   public void run(){
-    int numDone;
-
     while(true && !killFlag) {
-      numDone = 0;
+      // read before the rows, so the last pass shows every job as ended
+      boolean allEnded = world.isJobsComplete();
 
-      int delay = SeaPortMonitor.testMode ? 10 : 100;
       try{
-        Thread.sleep(delay);
-      } catch(InterruptedException e){}
-
-      for (Entry<Job, ArrayList<Object>> p : rowData.entrySet()) {
-        Job job = p.getKey();
-        ArrayList<Object> row = p.getValue();
-
-        // Update ship locations
-        if(job.ship.port == null)
-          row.set(3,"Departed");
-        else if (job.getShip().dock == null)
-          row.set(3, "Port queue");
-        else
-          row.set(3, job.getShip().dock.getName());
-
-        // update progress bar
-        ((JProgressBar) row.get(5)).setValue(job.getProgress());
-
-        // update job status
-        Status st = job.getStatus();
-        JButton suspendBtn = (JButton) row.get(7);
-        JButton cancelBtn = (JButton) row.get(8);
-        switch (st) {
-          case RUNNING:
-            row.set(6, "Running...");
-            suspendBtn.setEnabled(true);
-            cancelBtn.setEnabled(true);
-            suspendBtn.setText("Suspend");
-            break;
-          case SUSPENDED:
-            row.set(6, "Suspended");
-            suspendBtn.setText("Resume");
-            break;
-          case WAITINGTODOCK:
-            row.set(6, "Waiting for ship to dock");
-            break;
-          case WAITINGFORRESOURCES:
-            row.set(6,"Waiting for resources");
-            break;
-          case DONE:
-            row.set(6, "Done");
-            suspendBtn.setEnabled(false);
-            cancelBtn.setEnabled(false);
-            numDone++;
-            break;
-          case CANCELLED:
-            row.set(6, "CANCELLED");
-            suspendBtn.setEnabled(false);
-            cancelBtn.setEnabled(false);
-            numDone++;
-            break;
-          case LACKOFRESOURCES:
-            row.set(6,"CANCELLED (resources)");
-            suspendBtn.setEnabled(false);
-            cancelBtn.setEnabled(false);
-            numDone++;
+        Thread.sleep(100);
+      } catch(InterruptedException e){
+        // the world is shutting down
+        return;
+      }
+
+      synchronized (rowData) {
+        for (Entry<Job, ArrayList<Object>> p : rowData.entrySet()) {
+          Job job = p.getKey();
+          ArrayList<Object> row = p.getValue();
+
+          // Update ship locations
+          if(job.ship.port == null)
+            row.set(3,"Departed");
+          else if (job.getShip().dock == null)
+            row.set(3, "Port queue");
+          else
+            row.set(3, job.getShip().dock.getName());
+
+          // update progress bar, with the time left while the job is running
+          Status st = job.getStatus();
+          JProgressBar progressBar = (JProgressBar) row.get(5);
+          progressBar.setValue(job.getProgress());
+          progressBar.setString((st == Status.RUNNING) ? job.getProgress() + "%  "
+                  + formatTimeLeft(job.getRemainingTime()) : null);
+
+          // update job status
+          JButton suspendBtn = (JButton) row.get(7);
+          JButton cancelBtn = (JButton) row.get(8);
+          switch (st) {
+            case RUNNING:
+              row.set(6, "Running...");
+              suspendBtn.setEnabled(true);
+              cancelBtn.setEnabled(true);
+              suspendBtn.setText("Suspend");
+              break;
+            case SUSPENDED:
+              row.set(6, "Suspended");
+              suspendBtn.setText("Resume");
+              break;
+            case WAITINGTODOCK:
+              row.set(6, "Waiting for ship to dock");
+              break;
+            case WAITINGFORRESOURCES:
+              row.set(6,"Waiting for resources");
+              break;
+            case DONE:
+              row.set(6, "Done");
+              suspendBtn.setEnabled(false);
+              cancelBtn.setEnabled(false);
+              break;
+            case CANCELLED:
+              row.set(6, "CANCELLED");
+              suspendBtn.setEnabled(false);
+              cancelBtn.setEnabled(false);
+              break;
+            case LACKOFRESOURCES:
+              row.set(6,"CANCELLED (resources)");
+              suspendBtn.setEnabled(false);
+              cancelBtn.setEnabled(false);
+          }
         }
       }
       resizeAndRepaint();
 
-      if(numDone == data.size()){
+      // counted as their status changes, jobs of ports not loaded yet keep the world incomplete
+      if(allEnded){
         // All jobs are done, set stop flag
         // loop one more time to update the last ship, then stop updating the table
         if(jobsComplete)
@@ -237,6 +242,21 @@ public class JobTable extends JTable implements Runnable{
     }
   }
 
+  // returns the wall clock time a job needs to finish at the current speed, as shown in the table
+  private String formatTimeLeft(long remaining){
+    JobExecutor executor = world.getExecutor();
+    if(executor.isVirtualTime()){
+      return "";
+    }
+    long seconds = (executor.getClock().toWallMillis(remaining) + 999) / 1000;
+    if(seconds < 60){
+      return seconds + "s left";
+    } else if(seconds < 3600){
+      return String.format("%dm %02ds left", seconds / 60, seconds % 60);
+    }
+    return String.format("%dh %02dm left", seconds / 3600, seconds / 60 % 60);
+  }
+
   boolean isJobsComplete(){
     return jobsComplete;
   }
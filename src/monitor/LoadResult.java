@@ -0,0 +1,91 @@
+package monitor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * File: LoadResult.java
+ * Date: 18 October 2026
+ * @author Logan Hershberger
+ * Purpose: Outcome of loading a data file. Holds the populated World and every problem found
+ *          while parsing and linking, in the order they were found.
+ */
+public class LoadResult {
+
+  public enum ErrorKind {
+    FORMAT,           // line does not follow the data file format and was ignored
+    MISSING_PARENT    // object refers to a parent index that does not exist
+  }
+
+  // A single problem found in the data file
+  public static class LoadError {
+    private final ErrorKind kind;
+    private final int line;
+
+    LoadError(ErrorKind kind, int line) {
+      this.kind = kind;
+      this.line = line;
+    }
+
+    public ErrorKind getKind() {
+      return kind;
+    }
+
+    public int getLine() {
+      return line;
+    }
+
+    public String toString() {
+      if (kind == ErrorKind.FORMAT) {
+        return "Line " + line + ": invalid format, line ignored";
+      }
+      return "Line " + line + ": parent object does not exist";
+    }
+  }
+
+  private final World world;
+  private final ArrayList<LoadError> errors = new ArrayList<>();
+  private boolean fromSnapshot;
+
+  LoadResult(World world) {
+    this.world = world;
+  }
+
+  public World getWorld() {
+    return world;
+  }
+
+  // returns all errors in the order they were found
+  public List<LoadError> getErrors() {
+    return Collections.unmodifiableList(errors);
+  }
+
+  // returns the errors of one kind in the order they were found
+  public List<LoadError> getErrors(ErrorKind kind) {
+    ArrayList<LoadError> results = new ArrayList<>();
+    for (LoadError e : errors) {
+      if (e.kind == kind) {
+        results.add(e);
+      }
+    }
+    return results;
+  }
+
+  public boolean hasErrors() {
+    return !errors.isEmpty();
+  }
+
+  // true if the world was read from a binary snapshot instead of the text file
+  public boolean isFromSnapshot() {
+    return fromSnapshot;
+  }
+
+  void addError(ErrorKind kind, int line) {
+    errors.add(new LoadError(kind, line));
+  }
+
+  void setFromSnapshot(boolean fromSnapshot) {
+    this.fromSnapshot = fromSnapshot;
+  }
+}
@@ -1,8 +1,5 @@
 package monitor;
 
-import java.util.Map;
-import java.util.Scanner;
-
 /**
  * File: Person.java
  * Date: 27 May 2019
@@ -12,17 +9,20 @@ import java.util.Scanner;
 public class Person extends Thing {
   Port port;
   String skill;
+  int skillId;          // id of the skill in the world's skill table
+  int poolSlot;         // slot in the port's pool of the skill, set when the pool is built
   Thing location;
   Job currentjob;
 
-  public Person(Scanner sc, Map<Integer,Port> hmp){
-    super(sc);
-    sc.next();
-    port = hmp.get(sc.nextInt());
+  public Person(DataRecord record, World world){
+    super(record);
+    port = world.registry.getPort(record.parent);
     port.persons.add(this);
-    skill = sc.next();
+    skillId = world.skills.intern(record.skills[0]);
+    skill = world.skills.get(skillId);
     location = port;
     currentjob = null;
+    world.registry.register(this);
   }
 
   public String toString(){
@@ -1,9 +1,12 @@
 package monitor;
 
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Scanner;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * File: Port.java
@@ -16,137 +19,840 @@ public class Port extends Thing {
   ArrayList<Ship> queue = new ArrayList<>();
   ArrayList<Ship> ships = new ArrayList<>();
   ArrayList<Person> persons = new ArrayList<>();
-  HashMap<String,ArrayList<Person>> resourceMap = new HashMap<>();
-  HashMap<String,Integer> totalResourceList = new HashMap<>();
+  // available workers indexed by skill id, null for skills no worker here has
+  private volatile SkillPool[] skillPools = new SkillPool[0];
+  // a waiting job passed over this many times gets its workers before any later job does
+  static final int FAIRNESS_BOUND = 32;
+  // jobs waiting for workers in the order they started waiting, guarded by waitLock. The pools
+  // are locked while it is held, so like them it is not a monitor.
+  private final ReentrantLock waitLock = new ReentrantLock();
+  private final ArrayList<Job> waiters = new ArrayList<>();
+  private volatile int waitingCount;
+  // masks like Job.skillMask, guarded by waitLock. Bit b of the first gives the skills a waiting
+  // job needing skill b also needs, and the second the skills the overdue jobs need. Both may
+  // keep a few skills of jobs that stopped waiting until the next pass rebuilds them.
+  private final long[] sharedSkills = new long[64];
+  private long overdueSkills;
+  // skills whose workers a pass still has to offer to the waiting jobs
+  private final AtomicLong pendingSkills = new AtomicLong();
+  int[] skillIds = new int[0];          // skill ids of the workers at this port in id order
   World world;
+  final JobStatusCounts jobCounts = new JobStatusCounts();   // jobs of this port by status
+  volatile boolean loaded = true;      // false until the contents of a lazily loaded port are read
+  private boolean started = false;
+  // jobs waiting for their turn in a replayed schedule, guarded by replayLock. Like the skill
+  // pools it is not a monitor, since the pools are locked while it is held.
+  private final ReentrantLock replayLock = new ReentrantLock();
+  private ArrayList<Job> replayWaiters = new ArrayList<>();
+  // docks left empty while a replayed schedule gives them a later ship, guarded by this
+  private final ArrayList<Dock> freeDocks = new ArrayList<>();
+  // skills that made jobs infeasible when the port was loaded, in id order, with the number of
+  // jobs each one cancelled and the most workers of it one of those jobs needed
+  private int[] lackingSkills = new int[0];
+  private int[] lackingJobCounts = new int[0];
+  private int[] lackingMaxNeeded = new int[0];
 
 
-  public Port(Scanner sc, World world, Map<Integer, Port> hmp){
-    super(sc);
+  public Port(DataRecord record, World world){
+    super(record);
     this.world = world;
     this.world.ports.add(this);
-    hmp.put(sc.nextInt(),this);
+    this.world.registry.register(this);
   }
 
   public String toString(){
     return String.format("%-20s %-20s", "Port:", name);
   }
 
+  /**
+   * Reads this port's docks, ships, persons and jobs from the data file if the world was loaded
+   * with ports on demand and this port has not been used yet
+   * @return true if the port was loaded by this call
+   * @throws java.io.UncheckedIOException if the data file can no longer be read
+   */
+  boolean ensureLoaded(){
+    if(loaded || world.portIndex == null){
+      return false;
+    }
+    List<Job> jobs = world.portIndex.load(this);
+    if(jobs == null){
+      return false;
+    }
+    world.firePortLoaded(this, jobs);
+    return true;
+  }
+
+  boolean isLoaded(){
+    return loaded;
+  }
+
+  // returns the number of this port's jobs in each status
+  public JobStatusCounts getJobCounts(){
+    return jobCounts;
+  }
+
+  /**
+   * Forces docked ships with no jobs to leave and takes queued ships with no jobs out of the
+   * queue, then starts the jobs of every docked ship at the port. The jobs of queued ships start
+   * when their ship docks. Called by the world with its lock held, a port is only started once.
+   */
+  void startSimulation(){
+    if(started){
+      return;
+    }
+    started = true;
+    synchronized (this){
+      // ships whose jobs were all cancelled by checkFeasibility never wait for a dock
+      for(Iterator<Ship> it = queue.iterator(); it.hasNext(); ){
+        Ship s = it.next();
+        if(s.jobs.isEmpty()){
+          it.remove();
+          ships.remove(s);
+          // clears the ship's port, so it is listed as departed
+          s.leavePort();
+        }
+      }
+    }
+    for(Dock d : new ArrayList<>(docks)){
+      if(d.ship != null && d.ship.jobs.isEmpty()){
+        d.ship.leavePort();
+      }
+    }
+    for(Dock d : new ArrayList<>(docks)){
+      Ship s = d.ship;
+      if(s != null){
+        s.activateJobs();
+      }
+    }
+  }
+
   /**
    * Removes a ship from the list of all ships and assigns the open dock a new ship if one is available.
-   * Rejects ships with no jobs
+   * Rejects ships with no jobs. When replaying a schedule log the dock gets the ship the log gives
+   * it, and stays empty until then.
    * @param dock The Dock that is losing the ship
    * @param ship The Ship that is departing
    */
   void notifyOfDeparture(Dock dock, Ship ship){
     ships.remove(ship);
-    if(!queue.isEmpty()){
-      Ship s = queue.get(0);
+    ScheduleLog replay = getReplayLog();
+    if(replay != null){
+      freeDocks.add(dock);
+      assignRecordedDocks(replay);
+    } else {
+      assignNextShip(dock);
+    }
+  } // end notifyOfDeparture
 
-      // force ships with no jobs to leave
+  // gives the dock the first ship in the queue that has jobs, forcing ships with no jobs to leave
+  private void assignNextShip(Dock dock){
+    while(!queue.isEmpty()){
+      Ship s = queue.remove(0);
       if(s.jobs.isEmpty()){
-        queue.remove(0);
-        notifyOfDeparture(dock,s);
+        ships.remove(s);
+        s.leavePort();
       } else {
-        dock.assignShip(s);
-        queue.remove(0);
+        ScheduleLog log = world.getScheduleLog();
+        if(log != null && log.isRecording()){
+          log.recordDock(this, dock, s, world.getExecutor().currentTimeMillis());
+        }
+        if(dock.assignShip(s)){
+          return;
+        }
+        // the ship's last job was cancelled since it was checked
+        ships.remove(s);
       }
     }
-  } // end notifyOfDeparture
+  }
 
   /**
-   * populates the ports resource pool. The resource pool is a hashmap with skill names as keys
-   * and an arraylist of persons as the values. Persons are removed from the pool as they are
-   * assigned jobs and added as they return from jobs. Also generates the total resource list.
+   * Replays the recorded dock assignments of this port in order, for as long as the dock of the
+   * next one is free. Once there are none left the free docks take ships from the queue as usual.
+   * @param replay log being replayed
+   */
+  private void assignRecordedDocks(ScheduleLog replay){
+    ScheduleLog.Decision next;
+    while((next = replay.nextDock(this)) != null){
+      Dock dock = null;
+      for(Dock d : freeDocks){
+        if(d.index == next.targets[0]){
+          dock = d;
+        }
+      }
+      if(dock == null){
+        // the dock's ship has not left yet
+        return;
+      }
+      replay.dockReplayed(this);
+      Ship ship = null;
+      for(Ship s : queue){
+        if(s.index == next.subject){
+          ship = s;
+        }
+      }
+      if(ship == null || ship.jobs.isEmpty()){
+        // all of the ship's jobs were cancelled while it was queued
+        if(ship != null){
+          queue.remove(ship);
+          ships.remove(ship);
+          ship.leavePort();
+        }
+        continue;
+      }
+      // ships with no jobs ahead of it were rejected when the log was recorded
+      while(queue.get(0) != ship && queue.get(0).jobs.isEmpty()){
+        Ship rejected = queue.remove(0);
+        ships.remove(rejected);
+        rejected.leavePort();
+      }
+      queue.remove(ship);
+      freeDocks.remove(dock);
+      if(!dock.assignShip(ship)){
+        ships.remove(ship);
+        freeDocks.add(dock);
+      }
+    }
+    while(!freeDocks.isEmpty()){
+      assignNextShip(freeDocks.remove(0));
+    }
+  } // end of assignRecordedDocks
+
+  /**
+   * populates the ports resource pool. The resource pool is an array indexed by skill id, holding
+   * a SkillPool of the persons with that skill. Persons are removed from the pool as they are
+   * assigned jobs and added as they return from jobs. Also counts the total workers per skill.
    */
   void buildResourceMap(){
+    int skillCount = world.skills.size();
+    ArrayList<ArrayList<Person>> pool = new ArrayList<>(Collections.nCopies(skillCount, null));
+    int distinctSkills = 0;
     for(Person person : persons) {
-      if (resourceMap.containsKey(person.skill)) {
-        resourceMap.get(person.skill).add(person);
-        totalResourceList.replace(person.skill,totalResourceList.get(person.skill)+1);
-      } else {
-        ArrayList<Person> tmp = new ArrayList<>();
-        tmp.add(person);
-        resourceMap.put(person.skill, tmp);
-        totalResourceList.put(person.skill,1);
+      if (pool.get(person.skillId) == null) {
+        pool.set(person.skillId, new ArrayList<>());
+        distinctSkills++;
+      }
+      pool.get(person.skillId).add(person);
+    }
+
+    int[] ids = new int[distinctSkills];
+    SkillPool[] pools = new SkillPool[skillCount];
+    for(int id = 0, i = 0; id < skillCount; id++){
+      if(pool.get(id) != null){
+        ids[i++] = id;
+        pools[id] = new SkillPool(id, pool.get(id));
+      }
+    }
+
+    skillIds = ids;
+    skillPools = pools;
+  }
+
+  /**
+   * Cancels every job this port does not have enough workers for, as soon as the port is
+   * loaded and before any job starts, so those jobs never take a thread and their ships do not
+   * hold a dock waiting for them. The jobs end as LACKOFRESOURCES and are taken off their
+   * ships. Also counts, for each skill, the jobs it made infeasible. Called once the resource
+   * map is built.
+   */
+  void checkFeasibility(){
+    int skillCount = world.skills.size();
+    int[] cancelledBy = new int[skillCount];
+    int[] maxNeeded = new int[skillCount];
+    int lacking = 0;
+    for(Ship ship : ships){
+      ArrayList<Job> cancelled = new ArrayList<>();
+      for(Job job : ship.jobs){
+        boolean feasible = true;
+        for(int i = 0; i < job.requiredSkills.length; i++){
+          int skill = job.requiredSkills[i];
+          int needed = job.requiredCounts[i];
+          if(needed > getTotalCount(skill)){
+            // if no persons with skill exist at port, or
+            // not enough persons with skill at the port, cancel job
+            feasible = false;
+            if(cancelledBy[skill]++ == 0){
+              lacking++;
+            }
+            maxNeeded[skill] = Math.max(maxNeeded[skill], needed);
+          }
+        }
+        if(!feasible){
+          job.cancel();
+          cancelled.add(job);
+        }
+      }
+      if(!cancelled.isEmpty()){
+        synchronized (ship){
+          ship.jobs.removeAll(cancelled);
+        }
+      }
+    }
+
+    int[] skills = new int[lacking];
+    int[] counts = new int[lacking];
+    int[] mostNeeded = new int[lacking];
+    for(int id = 0, i = 0; id < skillCount; id++){
+      if(cancelledBy[id] > 0){
+        skills[i] = id;
+        counts[i] = cancelledBy[id];
+        mostNeeded[i++] = maxNeeded[id];
       }
     }
-    // notify jobs that tried to access the resource pool before it was populated
     synchronized (this){
-      notifyAll();
+      lackingSkills = skills;
+      lackingJobCounts = counts;
+      lackingMaxNeeded = mostNeeded;
     }
+  } // end of checkFeasibility
+
+  /**
+   * Describes the skills that made jobs at this port infeasible, one line per skill with the
+   * number of jobs it cancelled, the most workers of it one job needed and the workers here
+   * @return the report, empty if every job can be staffed
+   */
+  synchronized String getFeasibilityReport(){
+    StringBuilder report = new StringBuilder();
+    for(int i = 0; i < lackingSkills.length; i++){
+      report.append(String.format("%-20s %-20d %-20d %-20d \n", getSkillName(lackingSkills[i]),
+              lackingJobCounts[i], lackingMaxNeeded[i], getTotalCount(lackingSkills[i])));
+    }
+    return report.toString();
+  }
+
+  // returns the world's schedule log if this port replays it, otherwise null
+  private ScheduleLog getReplayLog(){
+    ScheduleLog log = world.getScheduleLog();
+    return (log != null && log.isReplaying()) ? log : null;
+  }
+
+  // returns the ids of the skills the workers at this port have, in id order
+  int[] getSkillIds() {
+    return skillIds;
+  }
+
+  // returns the name of a skill id
+  String getSkillName(int skillId) {
+    return world.skills.get(skillId);
+  }
+
+  // returns the number of workers with the skill that are not assigned a job
+  int getAvailableCount(int skillId) {
+    SkillPool pool = getSkillPool(skillId);
+    return (pool == null) ? 0 : pool.getAvailableCount();
   }
 
-  HashMap<String, ArrayList<Person>> getResourceMap() {
-    return resourceMap;
+  // returns the number of workers at this port with the skill
+  int getTotalCount(int skillId) {
+    SkillPool pool = getSkillPool(skillId);
+    return (pool == null) ? 0 : pool.getTotalCount();
+  }
+
+  // returns the pool of a skill id, or null if no worker at this port has the skill
+  private SkillPool getSkillPool(int skillId) {
+    SkillPool[] pools = skillPools;
+    return (skillId < pools.length) ? pools[skillId] : null;
   }
 
   /**
-   * Checks for the requested workers for a particular job. If the workers are found and
-   * available, they are sent to the ship and true is returned. If they are found but not
-   * available, false is returned. If they are not found, the job is cancelled and true is
-   * returned to allow the job thread to end.
+   * Requests the workers a job needs and, if they are not available, registers the job with the
+   * port, to be resumed once allocateWorkers hands it its workers. Jobs the port does not have
+   * enough workers for were cancelled by checkFeasibility and never get here. When replaying a
+   * schedule log the job waits for its turn in the log instead.
    * @param ship The ship that owns the job
    * @param job The job that needs the workers
-   * @return true if the workers were found and available, false otherwise
+   * @return true if the workers were assigned or the job was killed, false if the job must
+   *         park until resumed
    */
-  boolean requestWorkers(Ship ship, Job job){
-    ArrayList<Person> assignedWorkers = new ArrayList<>();
+  boolean requestWorkersOrWait(Ship ship, Job job){
+    // a job killed before it registered would never be resumed
+    if(job.isKilled() || job.workersGranted){
+      return true;
+    }
 
-    // prevents resources from being taken by multiple jobs
-    synchronized (resourceMap){
-      if(resourceMap.isEmpty()){
-        // resource map has not been loaded yet
-        return false;
+    ScheduleLog replay = getReplayLog();
+    if(replay != null){
+      boolean replayed = false;
+      replayLock.lock();
+      try{
+        ScheduleLog.Decision recorded = replay.nextWorkers(this);
+        if(recorded != null){
+          if(job.isKilled()){
+            return true;
+          }
+          // only the job the log gives workers to next may take them
+          if(recorded.subject != job.index || !takeRecordedWorkers(ship, job, recorded)){
+            job.setWaitingForResources();
+            replayWaiters.add(job);
+            return false;
+          }
+          replay.workersReplayed(this);
+          replayed = true;
+        }
+      } finally {
+        replayLock.unlock();
+      }
+      if(replayed){
+        // the job after it in the log may be waiting for its turn, and once the log is used up
+        // every job waiting for its turn schedules as usual
+        wakeReplayWaiters(replay);
+        return true;
       }
+    }
+    return requestWorkers(ship, job);
+  } // end of requestWorkersOrWait
 
-      for(String skill: job.requirements){
-        // count number of persons with this skill that the job requires
-        // necessary if the job requires multiple workers of the same skill
-        int skillCounter = 0;
-        for(int i=0; i<job.requirements.size(); i++){
-          if(job.requirements.get(i).equals(skill))
-            skillCounter++;
+  /**
+   * Assigns the workers a job needs if all of them are available and no other job is waiting,
+   * otherwise registers the job to wait for allocateWorkers. The pools of the job's skills are
+   * locked in skill id order, so jobs needing other skills are not held up.
+   * @param ship The ship that owns the job
+   * @param job The job that needs the workers
+   * @return true if the workers were assigned or the job was killed, false if the job must park
+   *         until resumed
+   */
+  private boolean requestWorkers(Ship ship, Job job){
+    // jobs already waiting are served first, by allocateWorkers
+    if(waitingCount == 0 && tryAssignWorkers(ship, job)){
+      return true;
+    }
+    waitLock.lock();
+    try{
+      // kill() sets the flag before it looks for the job in the list
+      if(job.isKilled()){
+        return true;
+      }
+      job.setWaitingForResources();
+      waiters.add(job);
+      waitingCount = waiters.size();
+      addSharedSkills(job);
+    } finally {
+      waitLock.unlock();
+    }
+    // workers may have returned since the pools were checked
+    allocateWorkers(job.skillMask);
+    return false;
+  }
+
+  // assigns the job its workers if all of them are available, returns false otherwise
+  private boolean tryAssignWorkers(Ship ship, Job job){
+    SkillPool[] pools = lockPools(job.requiredSkills);
+    try{
+      // one pass over the counts, no worker is touched unless all of them are available
+      for(int i = 0; i < pools.length; i++){
+        if(pools[i].getAvailableCount() < job.requiredCounts[i]){
+          return false;
         }
-        // if no persons with skill exist at port, or
-        // not enough persons with skill at the port, cancel job
-        if((totalResourceList.get(skill) == null) || (skillCounter > totalResourceList.get(skill))){
-          job.cancel();
-          return true;
+      }
+      takeWorkers(ship, job, pools);
+    } finally {
+      unlockPools(pools);
+    }
+    return true;
+  }
+
+  // takes the workers a job needs out of its pools, locked and in the order of its required
+  // skills, and assigns them. A skill needed more than once gets that many different workers.
+  private void takeWorkers(Ship ship, Job job, SkillPool[] pools){
+    ArrayList<Person> assignedWorkers = new ArrayList<>(job.requirements.length);
+    for(int i = 0; i < pools.length; i++){
+      pools[i].takeWorkers(job.requiredCounts[i], assignedWorkers);
+    }
+    assignWorkers(ship, job, assignedWorkers);
+    ScheduleLog log = world.getScheduleLog();
+    if(log != null && log.isRecording()){
+      log.recordWorkers(this, job, assignedWorkers, world.getExecutor().currentTimeMillis());
+    }
+  }
+
+  /**
+   * Hands the available workers of some skills to the waiting jobs, considering all of them in
+   * one pass, and resumes the jobs that got their workers. Called when workers return and when a
+   * job starts waiting. A caller that finds a pass already running leaves it to that pass to run
+   * again with its skills.
+   * @param skills mask of the skills, as in Job.skillMask, that have new workers or a new job
+   *        that needs them
+   */
+  private void allocateWorkers(long skills){
+    pendingSkills.getAndAccumulate(skills, (a, b) -> a | b);
+    while(pendingSkills.get() != 0 && waitLock.tryLock()){
+      ArrayList<Job> granted = null;
+      try{
+        long offered = pendingSkills.getAndSet(0);
+        if(offered != 0 && !waiters.isEmpty()){
+          granted = allocatePass(offered);
         }
+      } finally {
+        waitLock.unlock();
       }
+      if(granted != null){
+        for(Job j : granted){
+          j.resume();
+        }
+      }
+    }
+  }
 
-      for(String skill : job.requirements){
-        ArrayList<Person> tmp = resourceMap.get(skill);
-        if(tmp.isEmpty()){
-          // a worker of this skill is not currently available
-          return false;
+  /**
+   * Chooses which waiting jobs get workers, to start as many as the available workers allow.
+   * Jobs passed over FAIRNESS_BOUND times start first, oldest first, until one cannot start yet.
+   * That job keeps the available workers of its skills from every other job, so it starts as
+   * soon as enough return. The rest start fewest workers first, so one large job cannot hold
+   * back many small ones, and every job that a later job starts ahead of is counted as passed
+   * over. Called with waitLock held.
+   *
+   * A job that could not start at the end of the last pass can only start now if one of its
+   * skills got workers back or was held back by an overdue job, since passes only take workers
+   * and every return asks for a pass with its skills. So only the jobs needing those skills are
+   * considered and only the pools of their skills are locked, letting returns of other skills
+   * go on meanwhile.
+   * @param offered mask of the skills, as in Job.skillMask, to consider the jobs of
+   * @return the jobs given their workers, which the caller must resume
+   */
+  private ArrayList<Job> allocatePass(long offered){
+    offered |= overdueSkills;
+    long locking = 0;
+    for(long bits = offered; bits != 0; bits &= bits - 1){
+      locking |= sharedSkills[Long.numberOfTrailingZeros(bits)];
+    }
+    if(locking == 0){
+      return null;
+    }
+    int lockCount = 0;
+    for(int skill : skillIds){
+      if((locking & (1L << skill)) != 0){
+        lockCount++;
+      }
+    }
+    int[] lockSkills = new int[lockCount];
+    for(int i = 0, k = 0; k < lockCount; i++){
+      if((locking & (1L << skillIds[i])) != 0){
+        lockSkills[k++] = skillIds[i];
+      }
+    }
+
+    SkillPool[] pools = lockPools(lockSkills);
+    try{
+      int[] free = new int[skillPools.length];
+      int freeTotal = 0;
+      long freeMask = 0;      // like Job.skillMask, for the skills with a worker free now
+      for(SkillPool pool : pools){
+        free[pool.skillId] = pool.getAvailableCount();
+        freeTotal += free[pool.skillId];
+        if(free[pool.skillId] > 0){
+          freeMask |= 1L << pool.skillId;
+        }
+      }
+      if(freeTotal == 0){
+        return null;
+      }
+
+      int count = waiters.size();
+      boolean[] chosen = new boolean[count];
+      // the other jobs that could start with the workers free now, ordered by the number of
+      // workers they need, then age. The free counts only go down, so no other job can start.
+      long[] order = new long[count];
+      int ordinary = 0;
+      int newestChosen = -1;
+      boolean reserved = false;
+      for(int i = 0; i < count; i++){
+        Job job = waiters.get(i);
+        if((job.skillMask & offered) == 0){
+          continue;
+        }
+        if(reserved || job.passedOver < FAIRNESS_BOUND){
+          if((job.skillMask & ~freeMask) == 0 && fits(job, free)){
+            order[ordinary++] = ((long) job.requirements.length << 32) | i;
+          }
+        } else if(fits(job, free)){
+          freeTotal -= reserve(job, free);
+          chosen[i] = true;
+          newestChosen = i;   // overdue jobs are taken oldest first
+        } else {
+          // only the oldest overdue job that cannot start holds workers back
+          freeTotal -= reserve(job, free);
+          reserved = true;
+        }
+      }
+      Arrays.sort(order, 0, ordinary);
+      for(int k = 0; k < ordinary && freeTotal > 0; k++){
+        int i = (int) order[k];
+        Job job = waiters.get(i);
+        if(fits(job, free)){
+          freeTotal -= reserve(job, free);
+          chosen[i] = true;
+          newestChosen = Math.max(newestChosen, i);
+        }
+      }
+      if(newestChosen < 0){
+        return null;
+      }
+
+      // the jobs still waiting keep their order
+      ArrayList<Job> granted = new ArrayList<>();
+      int kept = 0;
+      Arrays.fill(sharedSkills, 0);
+      overdueSkills = 0;
+      for(int i = 0; i < count; i++){
+        Job job = waiters.get(i);
+        if(chosen[i]){
+          takeWorkers(job.ship, job, lockedPools(job, pools));
+          job.workersGranted = true;
+          granted.add(job);
         } else {
-          // worker is available, add to list to assign
-          assignedWorkers.add(tmp.get(0));
+          if(i < newestChosen){
+            job.passedOver++;
+          }
+          if(job.passedOver >= FAIRNESS_BOUND){
+            overdueSkills |= job.skillMask;
+          }
+          addSharedSkills(job);
+          waiters.set(kept++, job);
         }
       }
+      waiters.subList(kept, count).clear();
+      waitingCount = kept;
+      return granted;
+    } finally {
+      unlockPools(pools);
+    }
+  } // end of allocatePass
+
+  // adds a waiting job's skills to the skills shared with each of them. Called with waitLock held.
+  private void addSharedSkills(Job job){
+    for(long bits = job.skillMask; bits != 0; bits &= bits - 1){
+      sharedSkills[Long.numberOfTrailingZeros(bits)] |= job.skillMask;
+    }
+  }
+
+  // returns true if the free counts cover every worker the job needs
+  private static boolean fits(Job job, int[] free){
+    for(int i = 0; i < job.requiredSkills.length; i++){
+      if(free[job.requiredSkills[i]] < job.requiredCounts[i]){
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // takes what the job needs, or as much of it as is free, off the free counts and returns the
+  // number of workers taken
+  private static int reserve(Job job, int[] free){
+    int taken = 0;
+    for(int i = 0; i < job.requiredSkills.length; i++){
+      int skill = job.requiredSkills[i];
+      int n = Math.min(free[skill], job.requiredCounts[i]);
+      free[skill] -= n;
+      taken += n;
+    }
+    return taken;
+  }
+
+  // picks the pools of a job's required skills out of the locked pools, which are in id order
+  private SkillPool[] lockedPools(Job job, SkillPool[] all){
+    SkillPool[] pools = new SkillPool[job.requiredSkills.length];
+    for(int i = 0, p = 0; i < pools.length; i++){
+      while(all[p].skillId != job.requiredSkills[i]){
+        p++;
+      }
+      pools[i] = all[p];
+    }
+    return pools;
+  }
+
+  /**
+   * Assigns a job the workers a replayed decision gives it, if every one of them is available.
+   * Called with the replay lock held.
+   * @param ship The ship that owns the job
+   * @param job The job that needs the workers
+   * @param recorded the job's recorded decision
+   * @return true if the workers were assigned
+   */
+  private boolean takeRecordedWorkers(Ship ship, Job job, ScheduleLog.Decision recorded){
+    ArrayList<Person> workers = new ArrayList<>();
+    int[] skills = new int[recorded.targets.length];
+    for(int i = 0; i < skills.length; i++){
+      Thing t = world.registry.get(recorded.targets[i]);
+      if(!(t instanceof Person) || getSkillPool(((Person) t).skillId) == null){
+        // not the data file the log was recorded from, the worker never turns up
+        return false;
+      }
+      workers.add((Person) t);
+      skills[i] = ((Person) t).skillId;
+    }
 
-      // All job requirements have been met, assign the workers to the job and remove them from
-      // the resource pool
-      for(Person person : assignedWorkers){
-        person.assignJob(job);
-        resourceMap.get(person.skill).remove(person);
+    SkillPool[] pools = lockPools(distinctSkills(skills));
+    try{
+      for(Person p : workers){
+        if(!skillPools[p.skillId].contains(p)){
+          return false;
+        }
       }
-      ship.addWorkers(assignedWorkers);
+      for(Person p : workers){
+        skillPools[p.skillId].take(p);
+      }
+      assignWorkers(ship, job, workers);
+    } finally {
+      unlockPools(pools);
     }
     return true;
   }
 
+  // sends workers already taken out of their pools to a job
+  private void assignWorkers(Ship ship, Job job, ArrayList<Person> workers){
+    for(Person person : workers){
+      person.assignJob(job);
+    }
+    ship.addWorkers(workers);
+  }
+
+  // returns the distinct skill ids of a list in id order
+  private static int[] distinctSkills(int[] skills){
+    int[] sorted = skills.clone();
+    Arrays.sort(sorted);
+    int distinct = 0;
+    for(int i = 0; i < sorted.length; i++){
+      if(i == 0 || sorted[i] != sorted[i - 1]){
+        sorted[distinct++] = sorted[i];
+      }
+    }
+    return Arrays.copyOf(sorted, distinct);
+  }
+
+  // locks the pools of distinct skills given in id order, and returns them in that order
+  private SkillPool[] lockPools(int[] skills){
+    SkillPool[] pools = new SkillPool[skills.length];
+    for(int i = 0; i < skills.length; i++){
+      pools[i] = skillPools[skills[i]];
+      pools[i].lock.lock();
+    }
+    return pools;
+  }
+
+  private static void unlockPools(SkillPool[] pools){
+    for(int i = pools.length - 1; i >= 0; i--){
+      pools[i].lock.unlock();
+    }
+  }
+
+  /**
+   * Adds the workers of a finished job back to their pools as one batch, then lets
+   * allocateWorkers hand them to the waiting jobs
+   * @param returning workers being returned to the resource pool
+   */
+  void returnWorkers(List<Person> returning){
+    if(returning.isEmpty()){
+      return;
+    }
+    ArrayList<Person> sameSkill = new ArrayList<>();
+    boolean[] done = new boolean[returning.size()];
+    long returnedSkills = 0;     // like Job.skillMask
+    for(int i = 0; i < returning.size(); i++){
+      if(done[i]){
+        continue;
+      }
+      // every worker of this skill goes back under one lock
+      int skill = returning.get(i).skillId;
+      sameSkill.clear();
+      for(int j = i; j < returning.size(); j++){
+        Person person = returning.get(j);
+        if(!done[j] && person.skillId == skill){
+          person.clearJobAndReturn(this);
+          sameSkill.add(person);
+          done[j] = true;
+        }
+      }
+      skillPools[skill].putBack(sameSkill);
+      returnedSkills |= 1L << skill;
+    }
+    if(waitingCount > 0){
+      allocateWorkers(returnedSkills);
+    }
+    ScheduleLog replay = getReplayLog();
+    if(replay != null){
+      wakeReplayWaiters(replay);
+    }
+  } // end of returnWorkers
+
+  /**
+   * Takes a cancelled job off the list of jobs waiting for workers
+   * @param job job at this port
+   * @return true if the job was waiting and the caller must resume it
+   */
+  boolean cancelResourceWait(Job job){
+    replayLock.lock();
+    try{
+      if(replayWaiters.remove(job)){
+        return true;
+      }
+    } finally {
+      replayLock.unlock();
+    }
+    boolean removed;
+    long freed = 0;
+    waitLock.lock();
+    try{
+      removed = waiters.remove(job);
+      waitingCount = waiters.size();
+      if(removed && job.passedOver >= FAIRNESS_BOUND){
+        // the workers it held back from other jobs are free for them now
+        freed = job.skillMask;
+      }
+    } finally {
+      waitLock.unlock();
+    }
+    // runs any pass asked for while the list was locked
+    allocateWorkers(freed);
+    return removed;
+  }
+
   /**
-   * Adds person back to the resource pool and notifies all job threads that new resources are
-   * available
-   * @param person person being returned to the resource pool
+   * Drops the recorded workers of a job that ended before it got them when replaying a
+   * schedule log, so the jobs after it are not kept waiting
+   * @param job job at this port
    */
-  synchronized void returnWorker(Person person){
-    resourceMap.get(person.skill).add(person);
-    person.clearJobAndReturn(this);
-    notifyAll();
+  void skipRecordedWorkers(Job job){
+    ScheduleLog replay = getReplayLog();
+    if(replay == null){
+      return;
+    }
+    boolean skipped;
+    replayLock.lock();
+    try{
+      skipped = replay.skipWorkers(this, job);
+    } finally {
+      replayLock.unlock();
+    }
+    if(skipped){
+      wakeReplayWaiters(replay);
+    }
+  }
+
+  // resumes the job the replayed log gives workers to next, or every job waiting for its turn
+  // once the log is used up, they request their workers again
+  private void wakeReplayWaiters(ScheduleLog replay){
+    ArrayList<Job> waiting;
+    replayLock.lock();
+    try{
+      ScheduleLog.Decision next = replay.nextWorkers(this);
+      if(next != null){
+        waiting = new ArrayList<>();
+        for(Job j : replayWaiters){
+          if(j.index == next.subject){
+            waiting.add(j);
+          }
+        }
+        replayWaiters.removeAll(waiting);
+      } else {
+        waiting = replayWaiters;
+        replayWaiters = new ArrayList<>();
+      }
+    } finally {
+      replayLock.unlock();
+    }
+    for(Job j : waiting){
+      j.resume();
+    }
   }
 
+
 }
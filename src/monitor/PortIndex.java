@@ -0,0 +1,208 @@
+package monitor;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * File: PortIndex.java
+ * Date: 18 October 2026
+ * @author Logan Hershberger
+ * Purpose: Byte offset index of a data file used to load ports on demand. Every line is assigned
+ *          to the port that owns it, and a port's docks, ships, persons and jobs are read back
+ *          from the file and linked the first time the port is used.
+ */
+public class PortIndex {
+
+  private final File file;
+  private final World world;
+  // line ranges of each port that has not been loaded, as start and end offset pairs
+  private final HashMap<Integer, long[]> pendingRanges = new HashMap<>();
+  // sorted data file indices of all non-port Things, and the index of the port owning each
+  private final int[] thingIndices;
+  private final int[] ownerPorts;
+
+  private PortIndex(File file, World world, int[] thingIndices, int[] ownerPorts) {
+    this.file = file;
+    this.world = world;
+    this.thingIndices = thingIndices;
+    this.ownerPorts = ownerPorts;
+  }
+
+  /**
+   * Creates the ports of a world and indexes where the rest of each port's objects are in the
+   * data file. Records with no valid parent are reported and left out of the index.
+   * @param file data file the records were parsed from
+   * @param records every record of the file, in file order
+   * @param world world to add the ports to
+   * @param result receives format and missing parent errors
+   * @return the index, whose ports are all unloaded
+   */
+  static PortIndex build(File file, List<DataRecord> records, World world, LoadResult result) {
+    ArrayList<DataRecord> things = new ArrayList<>();
+    for (DataRecord r : records) {
+      if (!r.isValid()) {
+        result.addError(LoadResult.ErrorKind.FORMAT, r.line);
+      } else if (r.type == DataRecord.Type.PORT) {
+        WorldLoader.linkRecord(r, world);
+      } else {
+        things.add(r);
+      }
+    }
+    for (Port port : world.ports) {
+      port.loaded = false;
+    }
+
+    // find each record's port, parents before children
+    DataRecord[] byIndex = things.toArray(new DataRecord[0]);
+    Arrays.sort(byIndex, Comparator.comparingInt(r -> r.index));
+    int[] indices = new int[byIndex.length];
+    for (int i = 0; i < byIndex.length; i++) {
+      indices[i] = byIndex[i].index;
+    }
+    Integer[] linkOrder = new Integer[byIndex.length];
+    for (int i = 0; i < linkOrder.length; i++) {
+      linkOrder[i] = i;
+    }
+    Arrays.sort(linkOrder, Comparator.comparingInt(i -> WorldLoader.getLinkRank(byIndex[i].type)));
+
+    int[] owners = new int[byIndex.length];
+    Arrays.fill(owners, -1);
+    for (int i : linkOrder) {
+      owners[i] = findOwner(byIndex[i], byIndex, indices, owners, world);
+    }
+
+    // collect the lines of each port in file order, merging adjacent lines into one range
+    HashMap<Integer, ArrayList<Long>> ranges = new HashMap<>();
+    for (DataRecord r : records) {
+      if (!r.isValid() || r.type == DataRecord.Type.PORT) {
+        continue;
+      }
+      int owner = owners[Arrays.binarySearch(indices, r.index)];
+      if (owner < 0) {
+        result.addError(LoadResult.ErrorKind.MISSING_PARENT, r.line);
+        continue;
+      }
+      ArrayList<Long> portRanges = ranges.computeIfAbsent(owner, k -> new ArrayList<>());
+      int last = portRanges.size() - 1;
+      if (last > 0 && portRanges.get(last) + 1 >= r.offset) {
+        portRanges.set(last, r.offset + r.length);
+      } else {
+        portRanges.add(r.offset);
+        portRanges.add(r.offset + r.length);
+      }
+    }
+
+    PortIndex index = new PortIndex(file, world, indices, owners);
+    for (Port port : world.ports) {
+      ArrayList<Long> portRanges = ranges.get(port.index);
+      long[] offsets = new long[(portRanges == null) ? 0 : portRanges.size()];
+      for (int i = 0; i < offsets.length; i++) {
+        offsets[i] = portRanges.get(i);
+      }
+      index.pendingRanges.put(port.index, offsets);
+    }
+    return index;
+  } // end of build
+
+  // returns the index of the port that owns a record, or -1 if its parent does not exist
+  private static int findOwner(DataRecord r, DataRecord[] byIndex, int[] indices, int[] owners,
+          World world) {
+    if (world.registry.getPort(r.parent) != null) {
+      // ports own docks and persons, and ships waiting in their queue
+      return (r.type == DataRecord.Type.JOB) ? -1 : r.parent;
+    }
+    int i = Arrays.binarySearch(indices, r.parent);
+    if (i < 0) {
+      return -1;
+    }
+    DataRecord.Type parentType = byIndex[i].type;
+    boolean parentIsShip = parentType == DataRecord.Type.PASSENGER_SHIP
+            || parentType == DataRecord.Type.CARGO_SHIP;
+    switch (r.type) {
+      case PASSENGER_SHIP:
+      case CARGO_SHIP:
+        return (parentType == DataRecord.Type.DOCK) ? owners[i] : -1;
+      case JOB:
+        return parentIsShip ? owners[i] : -1;
+      default:
+        return -1;
+    }
+  }
+
+  /**
+   * Reads a port's objects from the data file and links them, unless the port is already loaded
+   * @param port port to load
+   * @return the jobs read for the port, or null if it was already loaded
+   * @throws UncheckedIOException if the data file can no longer be read
+   */
+  synchronized List<Job> load(Port port) {
+    long[] ranges = pendingRanges.get(port.index);
+    if (ranges == null) {
+      return null;
+    }
+
+    ArrayList<DataRecord> records = new ArrayList<>();
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      for (int i = 0; i < ranges.length; i += 2) {
+        DataFileTokenizer tokens = new DataFileTokenizer(channel, ranges[i], ranges[i + 1]);
+        while (tokens.nextLine()) {
+          if (tokens.hasNext()) {
+            DataRecord r = DataRecord.parse(tokens.next(), tokens);
+            if (r != null) {
+              records.add(r);
+            }
+          }
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } catch (IllegalArgumentException | NoSuchElementException e) {
+      // the file no longer matches the index
+      throw new UncheckedIOException(
+              new IOException("Data file changed since it was loaded", e));
+    }
+
+    records.sort(Comparator.comparingInt(r -> WorldLoader.getLinkRank(r.type)));
+    ArrayList<Job> jobs = new ArrayList<>();
+    for (DataRecord r : records) {
+      Thing thing = WorldLoader.linkRecord(r, world);
+      if (thing instanceof Job) {
+        jobs.add((Job) thing);
+      }
+    }
+    port.buildResourceMap();
+    port.checkFeasibility();
+    port.loaded = true;
+    pendingRanges.remove(port.index);
+    world.startLoadedPort(port);
+    return jobs;
+  } // end of load
+
+  /**
+   * Looks up the port that owns an object, without loading it
+   * @param index data file index of a Port, Dock, Ship, Person or Job
+   * @return the owning Port, the Port itself, or null if the index was not in the file
+   */
+  Port getOwner(int index) {
+    Port port = world.registry.getPort(index);
+    if (port != null) {
+      return port;
+    }
+    int i = Arrays.binarySearch(thingIndices, index);
+    return (i < 0 || ownerPorts[i] < 0) ? null : world.registry.getPort(ownerPorts[i]);
+  }
+
+  // returns true once every port has been loaded
+  synchronized boolean isFullyLoaded() {
+    return pendingRanges.isEmpty();
+  }
+}
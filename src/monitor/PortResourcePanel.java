@@ -11,7 +11,6 @@ import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Map.Entry;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
 import javax.swing.JTable;
@@ -48,7 +47,7 @@ public class PortResourcePanel extends JPanel implements Runnable{
   private JScrollPane resourceScrollPane;
   private ArrayList<Integer> resourceAvailabilityList;
   private SeaPortMonitor owner;
-  private boolean killFlag = false;
+  private volatile boolean killFlag = false;
 
   /**
    * Generates a JPanel based on a certain port. The panel contains a table of available
@@ -126,8 +125,8 @@ public class PortResourcePanel extends JPanel implements Runnable{
     workersPanel.add(workerScrollPane,BorderLayout.CENTER);
     add(workersPanel,c);
 
-    // start updating table
-    new Thread(this).start();
+    // start updating table, the world stops the thread when it shuts down
+    currentPort.world.startViewThread(this, "port-resources");
   }
 
   /**
@@ -206,17 +205,14 @@ public class PortResourcePanel extends JPanel implements Runnable{
   // generates a new table model for the resource table
   private DefaultTableModel generateResourceModel(){
     resourceAvailabilityList = new ArrayList<>();
-    HashMap<String,ArrayList<Person>> map = currentPort.getResourceMap();
-    Object[][] rowData = new Object[map.size()][resourceColNames.length];
+    int[] skillIds = currentPort.getSkillIds();
+    Object[][] rowData = new Object[skillIds.length][resourceColNames.length];
 
-    int counter = 0;
-    for(Entry<String,ArrayList<Person>> pair : map.entrySet()){
-      rowData[counter][0] = pair.getKey();
-      ArrayList<Person> tmpList = pair.getValue();
-      resourceAvailabilityList.add(tmpList.size());
-      rowData[counter][1] =
-              tmpList.size() + " out of " + currentPort.totalResourceList.get(pair.getKey());
-      counter++;
+    for(int i = 0; i < skillIds.length; i++){
+      int available = currentPort.getAvailableCount(skillIds[i]);
+      rowData[i][0] = currentPort.getSkillName(skillIds[i]);
+      resourceAvailabilityList.add(available);
+      rowData[i][1] = available + " out of " + currentPort.getTotalCount(skillIds[i]);
     }
     // make cells non-editable
     DefaultTableModel model = new DefaultTableModel(rowData,resourceColNames){
@@ -230,15 +226,14 @@ public class PortResourcePanel extends JPanel implements Runnable{
 
   // updates the current available workers displayed in the resource table
   private void updateResourceModel(TableModel model){
-    int counter = 0;
+    int[] skillIds = currentPort.getSkillIds();
     synchronized (resourceAvailabilityList) {
       resourceAvailabilityList.clear();
-      for (Entry<String, ArrayList<Person>> pair : currentPort.resourceMap.entrySet()) {
-        int size = pair.getValue().size();
-        String s = size + " out of " + currentPort.totalResourceList.get(pair.getKey());
+      for (int i = 0; i < skillIds.length; i++) {
+        int size = currentPort.getAvailableCount(skillIds[i]);
+        String s = size + " out of " + currentPort.getTotalCount(skillIds[i]);
         resourceAvailabilityList.add(size);
-        model.setValueAt(s,counter,1);
-        counter++;
+        model.setValueAt(s,i,1);
       }
     }
   }
@@ -252,14 +247,16 @@ public class PortResourcePanel extends JPanel implements Runnable{
   }
 
   /**
-   * While there are jobs running, keep updating the tables
+   * While there are jobs running, keep updating the tables. Ends when interrupted.
    */
   public void run(){
     // While jobs are still running
     while(!owner.isJobsComplete() && !killFlag){
       try{
         Thread.sleep(200);
-      } catch(InterruptedException e){}
+      } catch(InterruptedException e){
+        return;
+      }
 
       updateWorkerModel(workerTable.getModel());
       updateResourceModel(resourceTable.getModel());
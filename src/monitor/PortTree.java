@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import javax.swing.JTree;
 import javax.swing.tree.DefaultMutableTreeNode;
 import javax.swing.tree.DefaultTreeModel;
+import javax.swing.tree.TreePath;
 
 /**
  * File: PortTree.java
@@ -61,50 +62,80 @@ public class PortTree extends JTree {
   // builds the tree hierarchy from the arraylist of ports
   private DefaultMutableTreeNode buildTreeModel(ArrayList<Port> ports){
     DefaultMutableTreeNode root = new DefaultMutableTreeNode("World");
-    DefaultMutableTreeNode portNode;
-    DefaultMutableTreeNode node;
 
     for (Port port : ports) {
-      portNode = new DefaultMutableTreeNode(port);
-      DefaultMutableTreeNode docksDir = new DefaultMutableTreeNode("Docks");
-      DefaultMutableTreeNode queueDir = new DefaultMutableTreeNode("Ship Queue");
-      DefaultMutableTreeNode shipsDir = new DefaultMutableTreeNode("All Ships");
-      DefaultMutableTreeNode personsDir = new DefaultMutableTreeNode("Persons");
-      DefaultMutableTreeNode jobsDir = new DefaultMutableTreeNode("Jobs");
-
-      for (Dock dock : port.docks) {
-        node = new DefaultMutableTreeNode(dock);
-        if (dock.getShip() != null) {
-          node.add(new DefaultMutableTreeNode(dock.getShip()));
-        }
-        docksDir.add(node);
-      }
-      portNode.add(docksDir);
+      DefaultMutableTreeNode portNode = new DefaultMutableTreeNode(port);
+      addPortChildren(portNode, port);
+      root.add(portNode);
+    }
+
+    return root;
+  }
+
+  // adds the category nodes of a port, or a placeholder if the port has not been loaded
+  private void addPortChildren(DefaultMutableTreeNode portNode, Port port){
+    if (!port.isLoaded()) {
+      // expanding the port loads it
+      portNode.add(new DefaultMutableTreeNode("Not loaded"));
+      return;
+    }
 
-      for (Ship ship : port.queue) {
-        queueDir.add(new DefaultMutableTreeNode(ship));
+    DefaultMutableTreeNode node;
+    DefaultMutableTreeNode docksDir = new DefaultMutableTreeNode("Docks");
+    DefaultMutableTreeNode queueDir = new DefaultMutableTreeNode("Ship Queue");
+    DefaultMutableTreeNode shipsDir = new DefaultMutableTreeNode("All Ships");
+    DefaultMutableTreeNode personsDir = new DefaultMutableTreeNode("Persons");
+    DefaultMutableTreeNode jobsDir = new DefaultMutableTreeNode("Jobs");
+
+    for (Dock dock : port.docks) {
+      node = new DefaultMutableTreeNode(dock);
+      if (dock.getShip() != null) {
+        node.add(new DefaultMutableTreeNode(dock.getShip()));
       }
-      portNode.add(queueDir);
-
-      for (Ship ship : port.ships) {
-        shipsDir.add(new DefaultMutableTreeNode(ship));
-        if (!ship.jobs.isEmpty()) {
-          for (Job job : ship.jobs) {
-            jobsDir.add(new DefaultMutableTreeNode(job));
-          }
+      docksDir.add(node);
+    }
+    portNode.add(docksDir);
+
+    for (Ship ship : port.queue) {
+      queueDir.add(new DefaultMutableTreeNode(ship));
+    }
+    portNode.add(queueDir);
+
+    for (Ship ship : port.ships) {
+      shipsDir.add(new DefaultMutableTreeNode(ship));
+      if (!ship.jobs.isEmpty()) {
+        for (Job job : ship.jobs) {
+          jobsDir.add(new DefaultMutableTreeNode(job));
         }
       }
-      portNode.add(shipsDir);
-      portNode.add(jobsDir);
+    }
+    portNode.add(shipsDir);
+    portNode.add(jobsDir);
 
-      for (Person person : port.persons) {
-        personsDir.add(new DefaultMutableTreeNode(person));
-      }
-      portNode.add(personsDir);
-      root.add(portNode);
+    for (Person person : port.persons) {
+      personsDir.add(new DefaultMutableTreeNode(person));
     }
+    portNode.add(personsDir);
+  }
 
-    return root;
+  // rebuilds the nodes of a single port, used once a port loaded on demand has been read
+  void reloadPort(Port port){
+    DefaultMutableTreeNode root = (DefaultMutableTreeNode) getModel().getRoot();
+    for (int i = 0; i < root.getChildCount(); i++) {
+      DefaultMutableTreeNode portNode = (DefaultMutableTreeNode) root.getChildAt(i);
+      if (portNode.getUserObject() == port) {
+        // a port expanded while it was loading stays expanded
+        TreePath path = new TreePath(portNode.getPath());
+        boolean expanded = isExpanded(path);
+        portNode.removeAllChildren();
+        addPortChildren(portNode, port);
+        ((DefaultTreeModel) getModel()).nodeStructureChanged(portNode);
+        if (expanded) {
+          expandPath(path);
+        }
+        return;
+      }
+    }
   }
 
   // updates tree model with new port arraylist
@@ -0,0 +1,185 @@
+package monitor;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * File: ReloadCheck.java
+ * Date: 18 October 2026
+ * @author Logan Hershberger
+ * Purpose: Checks that a replaced world leaves nothing running or reachable, as when a new data
+ *          file is loaded in the monitor. A generated world with queued ships and scarce workers
+ *          is loaded 50 times in each executor mode, each time running its jobs, a JobTable
+ *          refresher and a view that runs until interrupted, as the port resource panel does.
+ *          Both are started with World.startViewThread and left for shutdown to stop, and each
+ *          world is shut down before the next is loaded. After the last world, the thread count
+ *          and heap must be back to what they were after the first, with no view thread left and
+ *          none of the worlds reachable. The check exits with status 1 if any of that fails or a
+ *          shutdown timed out.
+ *
+ *          Usage: java monitor.ReloadCheck [reloads]
+ *            reloads  worlds loaded in each mode, 50 by default
+ */
+public class ReloadCheck {
+
+  private static final long SHUTDOWN_TIMEOUT = 10_000;
+  private static final long HEAP_SLACK = 1 << 20;     // bytes the heap may grow beyond a quarter
+
+  public static void main(String[] args) {
+    System.setProperty("java.awt.headless", "true");
+    int reloads = (args.length > 0) ? Integer.parseInt(args[0]) : 50;
+    int failures = 0;
+    try {
+      File file = File.createTempFile("reload-check", ".txt");
+      file.deleteOnExit();
+      WorldGenerator generator = new WorldGenerator();
+      generator.setCounts(2, 16, 64, 0, 12, 600);
+      generator.setSkills(4, 0);
+      generator.setDurations(1, 20);
+      generator.setMaxRequirements(2);
+      generator.setQueuedRatio(0.5);
+      generator.setSeed(5);
+      generator.write(file);
+
+      for (JobExecutor.Mode mode : JobExecutor.Mode.values()) {
+        failures += check(file, mode, reloads);
+      }
+    } catch (IOException e) {
+      System.err.println("Error: World could not be written or loaded: " + e.getMessage());
+      System.exit(1);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      System.exit(1);
+    }
+    if (failures > 0) {
+      System.out.println("FAILED: " + failures + " checks failed");
+      System.exit(1);
+    }
+    System.out.println("OK: every replaced world stopped and was released");
+  } // end of main
+
+  /**
+   * Loads and replaces a world repeatedly in one executor mode
+   * @param file data file to load
+   * @param mode how the jobs are run
+   * @param reloads number of worlds to load
+   * @return the number of checks that failed
+   * @throws IOException if the file cannot be read
+   * @throws InterruptedException if interrupted while the worlds run
+   */
+  static int check(File file, JobExecutor.Mode mode, int reloads)
+          throws IOException, InterruptedException {
+    ArrayList<WeakReference<World>> worlds = new ArrayList<>();
+    int baseThreads = 0;
+    long baseHeap = 0;
+    int timedOut = 0;
+    World world = null;
+    for (int i = 0; i < reloads; i++) {
+      if (world != null && !world.shutdown(SHUTDOWN_TIMEOUT)) {
+        timedOut++;
+      }
+      if (i == 1) {
+        // the first world has started every thread the program keeps, such as the event queue
+        baseThreads = threadCount();
+        baseHeap = usedHeap();
+      }
+      world = new WorldLoader().load(file, "Reload " + i).getWorld();
+      world.setExecutor(new JobExecutor(mode, 4));
+      // VIRTUAL falls back to the pool before Java 21
+      mode = world.getExecutor().getMode();
+      JobTable table = new JobTable(world);
+      for (Job job : world.getJobs()) {
+        table.addJob(job);
+      }
+      world.startViewThread(table, "job-table");
+      world.startViewThread(ReloadCheck::refreshUntilInterrupted, "port-resources");
+      world.startSimulation();
+      worlds.add(new WeakReference<>(world));
+      Thread.sleep(200);
+    }
+    if (world != null && !world.shutdown(SHUTDOWN_TIMEOUT)) {
+      timedOut++;
+    }
+    world = null;
+
+    int threads = threadCount();
+    long heap = usedHeap();
+    int reachable = 0;
+    for (WeakReference<World> w : worlds) {
+      if (w.get() != null) {
+        reachable++;
+      }
+    }
+    Set<String> views = new TreeSet<>();
+    for (Thread t : Thread.getAllStackTraces().keySet()) {
+      if (t.getName().equals("job-table") || t.getName().equals("port-resources")) {
+        views.add(t.getName() + " (" + t.getState() + ")");
+      }
+    }
+    System.out.printf("%-14s threads %d -> %d, heap %.1f -> %.1f MB, %d of %d worlds reachable,"
+            + " %d shutdowns timed out%n", mode, baseThreads, threads, baseHeap / 1e6,
+            heap / 1e6, reachable, worlds.size(), timedOut);
+
+    int failures = 0;
+    if (timedOut > 0) {
+      System.out.println("  " + mode + ": World.shutdown returned false");
+      failures++;
+    }
+    if (!views.isEmpty()) {
+      System.out.println("  " + mode + ": view threads still running: " + views);
+      failures++;
+    }
+    if (threads > baseThreads) {
+      System.out.println("  " + mode + ": threads left running: " + threadNames());
+      failures++;
+    }
+    if (heap > baseHeap + baseHeap / 4 + HEAP_SLACK) {
+      System.out.println("  " + mode + ": heap did not return to its baseline");
+      failures++;
+    }
+    if (reachable > 0) {
+      System.out.println("  " + mode + ": replaced worlds are still reachable");
+      failures++;
+    }
+    return failures;
+  } // end of check
+
+  // a view that keeps refreshing until its thread is interrupted
+  private static void refreshUntilInterrupted() {
+    try {
+      while (true) {
+        Thread.sleep(200);
+      }
+    } catch (InterruptedException e) {
+      // the world is shutting down
+    }
+  }
+
+  private static int threadCount() throws InterruptedException {
+    // give threads that were just told to end time to do so
+    Thread.sleep(500);
+    return ManagementFactory.getThreadMXBean().getThreadCount();
+  }
+
+  // returns the heap in use once garbage has been collected
+  private static long usedHeap() throws InterruptedException {
+    for (int i = 0; i < 4; i++) {
+      System.gc();
+      Thread.sleep(50);
+    }
+    return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+  }
+
+  private static Set<String> threadNames() {
+    Set<String> names = new TreeSet<>();
+    for (Thread t : Thread.getAllStackTraces().keySet()) {
+      names.add(t.getName());
+    }
+    return names;
+  }
+}
@@ -0,0 +1,317 @@
+package monitor;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * File: ScheduleLog.java
+ * Date: 18 October 2026
+ * @author Logan Hershberger
+ * Purpose: Record of the scheduling decisions of a run, which job got which workers and which
+ *          queued ship got which dock, and when. A log is either written while a world runs, or
+ *          read back to replay it: the ports of a world replaying a log make the same decisions
+ *          in the same order on the same data file, whatever the timing of the job threads.
+ *          Decisions are ordered per port, since ports share no workers or docks. Once a port's
+ *          recorded decisions are used up it schedules as usual.
+ *
+ *          Layout (big endian):
+ *            int magic, short version, long source length, long source modified time
+ *            then per decision: byte kind, int port index, long simulated time in milliseconds
+ *              workers: int job index, int worker count, worker indices
+ *              dock:    int ship index, int dock index
+ */
+public class ScheduleLog {
+
+  private static final int MAGIC = 0x53504D4C;    // "SPML"
+  private static final short VERSION = 1;
+  private static final byte WORKERS = 0;
+  private static final byte DOCK = 1;
+
+  // one recorded decision, the job or ship it was made for and the workers or dock it got
+  static class Decision {
+    final long time;
+    final int subject;
+    final int[] targets;
+
+    Decision(long time, int subject, int[] targets) {
+      this.time = time;
+      this.subject = subject;
+      this.targets = targets;
+    }
+  }
+
+  private final DataOutputStream out;       // null when replaying
+  private IOException writeError;
+  private boolean closed;
+  private Thread closeAtExit;               // writes out the log if the program ends first
+  private int recordedCount;
+  // decisions not yet replayed by port index, each guarded by the lock its port decides under
+  private final HashMap<Integer, ArrayDeque<Decision>> workerDecisions = new HashMap<>();
+  private final HashMap<Integer, ArrayDeque<Decision>> dockDecisions = new HashMap<>();
+
+  private ScheduleLog(DataOutputStream out) {
+    this.out = out;
+  }
+
+  /**
+   * Creates a log that records the decisions of a run
+   * @param logFile file to write, replaced if it exists
+   * @param dataFile data file the world is loaded from
+   * @return the new log
+   * @throws IOException if the log cannot be written
+   */
+  public static ScheduleLog record(File logFile, File dataFile) throws IOException {
+    DataOutputStream out = new DataOutputStream(
+            new BufferedOutputStream(new FileOutputStream(logFile), 1 << 16));
+    try {
+      out.writeInt(MAGIC);
+      out.writeShort(VERSION);
+      out.writeLong(dataFile.length());
+      out.writeLong(dataFile.lastModified());
+    } catch (IOException e) {
+      out.close();
+      throw e;
+    }
+    ScheduleLog log = new ScheduleLog(out);
+    log.closeAtExit = new Thread(() -> {
+      try {
+        log.close();
+      } catch (IOException e) {
+        // nothing can report it while the program ends
+      }
+    }, "schedule-log-close");
+    Runtime.getRuntime().addShutdownHook(log.closeAtExit);
+    return log;
+  }
+
+  /**
+   * Reads a recorded log to replay it. A log cut short, by the program ending while it was
+   * recorded, replays up to its last complete decision.
+   * @param logFile log written by a recording run
+   * @param dataFile data file the world is loaded from, must be the file that was recorded
+   * @return the log, ready to replay
+   * @throws IOException if the log cannot be read or was recorded from another data file
+   */
+  public static ScheduleLog replay(File logFile, File dataFile) throws IOException {
+    ScheduleLog log = new ScheduleLog(null);
+    try (DataInputStream in = new DataInputStream(
+            new BufferedInputStream(new FileInputStream(logFile), 1 << 16))) {
+      if (in.readInt() != MAGIC || in.readShort() != VERSION) {
+        throw new IOException("Not a schedule log: " + logFile);
+      }
+      if (in.readLong() != dataFile.length() || in.readLong() != dataFile.lastModified()) {
+        throw new IOException("Schedule log was recorded from a different data file");
+      }
+      while (log.readDecision(in)) {
+        // decisions are queued by readDecision
+      }
+    }
+    return log;
+  }
+
+  /**
+   * Creates the log named by the monitor.record or monitor.replay system property
+   * @param dataFile data file the world is loaded from
+   * @return a recording or replaying log, or null if neither property is set
+   * @throws IOException if the log cannot be written or read
+   */
+  public static ScheduleLog fromSystemProperties(File dataFile) throws IOException {
+    String replayFile = System.getProperty("monitor.replay");
+    if (replayFile != null) {
+      return replay(new File(replayFile), dataFile);
+    }
+    String recordFile = System.getProperty("monitor.record");
+    if (recordFile != null) {
+      return record(new File(recordFile), dataFile);
+    }
+    return null;
+  }
+
+  // reads one decision into the queue of its port, returns false at the end of the log
+  private boolean readDecision(DataInputStream in) throws IOException {
+    try {
+      byte kind = in.readByte();
+      int port = in.readInt();
+      long time = in.readLong();
+      int subject = in.readInt();
+      int[] targets;
+      if (kind == WORKERS) {
+        targets = new int[in.readInt()];
+        for (int i = 0; i < targets.length; i++) {
+          targets[i] = in.readInt();
+        }
+      } else if (kind == DOCK) {
+        targets = new int[] {in.readInt()};
+      } else {
+        throw new IOException("Schedule log is corrupt");
+      }
+      HashMap<Integer, ArrayDeque<Decision>> decisions =
+              (kind == WORKERS) ? workerDecisions : dockDecisions;
+      decisions.computeIfAbsent(port, k -> new ArrayDeque<>())
+              .add(new Decision(time, subject, targets));
+      return true;
+    } catch (EOFException e) {
+      // end of the log, or a decision that was not completely written
+      return false;
+    }
+  }
+
+  // returns the worker or the dock decisions of every port that have not been replayed, so Bench
+  // can measure a recorded run
+  List<Decision> getDecisions(boolean workers) {
+    ArrayList<Decision> all = new ArrayList<>();
+    for (ArrayDeque<Decision> port : (workers ? workerDecisions : dockDecisions).values()) {
+      all.addAll(port);
+    }
+    return all;
+  }
+
+  boolean isRecording() {
+    return out != null;
+  }
+
+  boolean isReplaying() {
+    return out == null;
+  }
+
+  /**
+   * Records the workers a job was given, called by the port with the pools of their skills
+   * locked
+   * @param port port of the job
+   * @param job job given the workers
+   * @param workers workers assigned to the job
+   * @param time simulated time of the assignment
+   */
+  synchronized void recordWorkers(Port port, Job job, List<Person> workers, long time) {
+    if (closed || writeError != null) {
+      return;
+    }
+    try {
+      out.writeByte(WORKERS);
+      out.writeInt(port.index);
+      out.writeLong(time);
+      out.writeInt(job.index);
+      out.writeInt(workers.size());
+      for (Person p : workers) {
+        out.writeInt(p.index);
+      }
+      recordedCount++;
+    } catch (IOException e) {
+      // the run goes on, the error is reported by close
+      writeError = e;
+    }
+  }
+
+  /**
+   * Records the queued ship a dock was given, called by the port with its lock held
+   * @param port port of the dock
+   * @param dock dock the ship moves to
+   * @param ship ship leaving the port's queue
+   * @param time simulated time of the assignment
+   */
+  synchronized void recordDock(Port port, Dock dock, Ship ship, long time) {
+    if (closed || writeError != null) {
+      return;
+    }
+    try {
+      out.writeByte(DOCK);
+      out.writeInt(port.index);
+      out.writeLong(time);
+      out.writeInt(ship.index);
+      out.writeInt(dock.index);
+      recordedCount++;
+    } catch (IOException e) {
+      writeError = e;
+    }
+  }
+
+  // returns the number of decisions recorded so far
+  synchronized int getRecordedCount() {
+    return recordedCount;
+  }
+
+  // returns the next worker assignment to replay at a port, or null once there are none left.
+  // Called with the port's replay lock held, like the other worker methods.
+  Decision nextWorkers(Port port) {
+    ArrayDeque<Decision> decisions = workerDecisions.get(port.index);
+    return (decisions == null) ? null : decisions.peek();
+  }
+
+  // marks the next worker assignment at a port as replayed
+  void workersReplayed(Port port) {
+    workerDecisions.get(port.index).poll();
+  }
+
+  /**
+   * Drops the worker assignment of a job that ended before it got its workers, so the jobs
+   * after it at the port are not kept waiting for it
+   * @param port port of the job
+   * @param job job that ended
+   * @return true if the job had an assignment that was not replayed yet
+   */
+  boolean skipWorkers(Port port, Job job) {
+    ArrayDeque<Decision> decisions = workerDecisions.get(port.index);
+    if (decisions == null) {
+      return false;
+    }
+    for (Iterator<Decision> it = decisions.iterator(); it.hasNext(); ) {
+      if (it.next().subject == job.index) {
+        it.remove();
+        return true;
+      }
+    }
+    return false;
+  }
+
+  // returns the next dock assignment to replay at a port, or null once there are none left.
+  // Called with the port locked, like dockReplayed.
+  Decision nextDock(Port port) {
+    ArrayDeque<Decision> decisions = dockDecisions.get(port.index);
+    return (decisions == null) ? null : decisions.peek();
+  }
+
+  // marks the next dock assignment at a port as replayed
+  void dockReplayed(Port port) {
+    dockDecisions.get(port.index).poll();
+  }
+
+  /**
+   * Writes out any decisions still buffered and closes a recording log, decisions made later
+   * are not recorded. Does nothing when replaying or once closed.
+   * @throws IOException if a decision could not be written during the run, or the log could
+   *         not be closed
+   */
+  public synchronized void close() throws IOException {
+    if (out == null || closed) {
+      return;
+    }
+    closed = true;
+    try {
+      Runtime.getRuntime().removeShutdownHook(closeAtExit);
+    } catch (IllegalStateException e) {
+      // closed by the hook itself
+    }
+    try {
+      out.close();
+    } catch (IOException e) {
+      if (writeError == null) {
+        writeError = e;
+      }
+    }
+    if (writeError != null) {
+      throw writeError;
+    }
+  }
+}
@@ -12,14 +12,15 @@ import java.awt.Toolkit;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.io.File;
-import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.FileSystems;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Scanner;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
 import javax.swing.AbstractButton;
 import javax.swing.BorderFactory;
 import javax.swing.ButtonGroup;
@@ -29,18 +30,24 @@ import javax.swing.JCheckBox;
 import javax.swing.JComboBox;
 import javax.swing.JFileChooser;
 import javax.swing.JFrame;
+import javax.swing.JLabel;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
+import javax.swing.JProgressBar;
 import javax.swing.JRadioButton;
 import javax.swing.JScrollPane;
+import javax.swing.JSlider;
 import javax.swing.JSplitPane;
 import javax.swing.JTabbedPane;
 import javax.swing.JTextArea;
 import javax.swing.JTextField;
 import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
 import javax.swing.UIManager;
 import javax.swing.UIManager.LookAndFeelInfo;
 import javax.swing.WindowConstants;
+import javax.swing.event.TreeExpansionEvent;
+import javax.swing.event.TreeWillExpandListener;
 import javax.swing.border.TitledBorder;
 import javax.swing.filechooser.FileNameExtensionFilter;
 import javax.swing.tree.DefaultMutableTreeNode;
@@ -101,6 +108,13 @@ public class SeaPortMonitor extends JFrame {
   private JPanel portResourceContainerPanel;
   private JPanel portSelectionBtnPanel;
   private JFileChooser fileChooser;
+  private JProgressBar loadProgressBar;
+  private JButton cancelLoadButton;
+  private JCheckBox lazyLoadCheckBox;
+  private JPanel speedPanel;
+  private JSlider speedSlider;      // tenths of a power of ten, -10 is 0.1x and 30 is 1000x
+  private JLabel speedLabel;
+  private LoadWorker loadWorker;
 
   private int lastPos;
   private monitor.PortTree worldTree;
@@ -114,6 +128,8 @@ public class SeaPortMonitor extends JFrame {
   // When set true, jobs progress 10 times faster and the data file is hard-coded into the load
   // file button
   public static boolean testMode = false;
+  // longest time a replaced world is given to stop its jobs and threads, in milliseconds
+  private static final long SHUTDOWN_TIMEOUT = 10000;
   // In test mode, this file will load simply by clicking the Load file button
   public String testFilePath = FileSystems.getDefault().getPath("input2.txt").toString();
 
@@ -131,6 +147,11 @@ public class SeaPortMonitor extends JFrame {
   private String personColLabels = "----- Persons " + getCharSequence('-', 46) + "\n"
           + String.format("%-20s %-20s %-20s \n", "Name", "Port", "Skill")
           + getCharSequence('-', 60) + "\n";
+  private String lackingColLabels = "----- Jobs Lacking Resources " + getCharSequence('-', 51)
+          + "\n" + String.format("%-20s %-20s %-20s %-20s \n", "Skill", "Jobs", "Most Needed",
+                  "Workers") + getCharSequence('-', 80) + "\n";
+  private String jobColLabels = String.format("%-20s %-20s %-20s \n", "Type", "Name", "Ship")
+          + getCharSequence('-', 60) + "\n";
 
 
   public static void main(String[] args) {
@@ -180,104 +201,43 @@ public class SeaPortMonitor extends JFrame {
     }); // end chooseFileButton listener
 
     loadFileButton.addActionListener(e -> {
-      // if not the first file load, kill the old threads
-      if (!isInitialFileLoad) {
-        killOldThreads();
+      if (testMode) {
+        // hard code file path for easier testing
+        dataFile = new File(testFilePath);
+      } else {
+        if (fileNameField.getText().equals("")) {
+          JOptionPane.showMessageDialog(this, "Must choose a data file", "No File",
+                  JOptionPane.ERROR_MESSAGE);
+          return;
+        }
+        dataFile = new File(fileNameField.getText());
       }
 
-      try {
-        if (testMode) {
-          // hard code file path for easier testing
-          dataFile = new File(testFilePath);
-        } else {
-          if (fileNameField.getText().equals("")) {
-            JOptionPane.showMessageDialog(this, "Must choose a data file", "No File",
-                    JOptionPane.ERROR_MESSAGE);
-            return;
-          }
-          dataFile = new File(fileNameField.getText());
+      // load in the background, the current world keeps running until the new one is ready
+      loadFileButton.setEnabled(false);
+      chooseFileButton.setEnabled(false);
+      cancelLoadButton.setEnabled(true);
+      loadProgressBar.setValue(0);
+      loadProgressBar.setString("Reading file...");
+      loadWorker = new LoadWorker(dataFile);
+      loadWorker.addPropertyChangeListener(evt -> {
+        if ("progress".equals(evt.getPropertyName())) {
+          int percent = (Integer) evt.getNewValue();
+          loadProgressBar.setValue(percent);
+          loadProgressBar.setString((percent < 100) ? "Reading file... " + percent + "%"
+                  : "Building world...");
         }
+      });
+      loadWorker.execute();
+    }); // end loadFileBtn listener
 
-        // Create and populate world
-        world = new monitor.World("Default World");
-        jobsTable = new monitor.JobTable();
-        portSelectionBtnPanel = new JPanel(new GridLayout(0, 1));
-        portSelectGroup = new ButtonGroup();
-        processDataFile(dataFile, world, jobsTable);
-
-        // get and display port resource panel
-        portResourcePanel = new monitor.PortResourcePanel(world.ports, this);
-        portResourceContainerPanel.removeAll();
-        portResourceContainerPanel.add(portResourcePanel, BorderLayout.CENTER);
-
-        // Display World
-        outputArea.setText(getFormattedOutput(null, null, null));
-        worldTree = new monitor.PortTree(world.ports);
-        treeScroll.setViewportView(worldTree);
-
-        // Display Ship details in new frame when a ship in the tree is double-clicked
-        worldTree.addMouseListener(new MouseAdapter() {
-          @Override
-          public void mousePressed(MouseEvent e) {
-            try {
-              super.mousePressed(e);
-              if (e.getClickCount() >= 2) {
-                DefaultMutableTreeNode node = (DefaultMutableTreeNode) worldTree
-                        .getLastSelectedPathComponent();
-                if (node.getUserObject() instanceof monitor.Ship) {
-                  new monitor.ShipDetailsFrame((monitor.Ship) node.getUserObject());
-                }
-              }
-            } catch (NullPointerException e1) {
-            }
-          }
-        });
-
-        // Display table in scrollpane
-        jobsTable.sort(SortColumn.PORT);
-        jobScrollPane.setViewportView(jobsTable);
-        new Thread(jobsTable).start();
-
-        // display port selection buttons and select first port
-        portSelectionScrollPane.setViewportView(portSelectionBtnPanel);
-        AbstractButton btn = Collections.list(portSelectGroup.getElements()).get(0);
-        btn.setSelected(true);
-
-        getRootPane().setDefaultButton(searchButton);
-        searchField.requestFocus();
-        searchResultArea.setText("");
-        searchField.setText("");
-        targetCBox.setSelectedIndex(0);
-        mainTabbedPane.setEnabled(true);
-        resultsPanel.setEnabled(true);
-        treePanel.setEnabled(true);
-        dataPanel.setEnabled(true);
-        outputSplitPane.setEnabled(true);
-        topSplitPane.setEnabled(true);
-        enableSearch();
-        enableSort();
-
-        // Force docked ships with no jobs to leave
-        for (Port p : world.ports) {
-          for (monitor.Dock d : p.docks) {
-            if (d.ship != null) {
-              if (d.ship.jobs.isEmpty()) {
-                d.ship.leavePort();
-              }
-            }
-          }
-        }
-        portResourceContainerPanel.revalidate();
-        isInitialFileLoad = false;
-
-      } catch (FileNotFoundException e1) {
-        outputArea.setText("Error: File could not be read");
-        disableSearch();
-        disableSort();
-      } catch (monitor.InvalidSearchSortException e2) {
+    cancelLoadButton.addActionListener(e -> {
+      if (loadWorker != null) {
+        loadWorker.cancelLoad();
+        cancelLoadButton.setEnabled(false);
+        loadProgressBar.setString("Cancelling...");
       }
-
-    }); // end loadFileBtn listener
+    }); // end cancelLoadButton listener
 
     sortItemCbox.addActionListener(e -> {
       CardLayout card = (CardLayout) sortByCardPanel.getLayout();
@@ -298,64 +258,12 @@ public class SeaPortMonitor extends JFrame {
       }
     });
 
+    // searches run in the background, they may load ports from the data file
     searchButton.addActionListener(e -> {
       String targetType = String.valueOf(targetCBox.getSelectedItem());
       String target = searchField.getText().toLowerCase().trim();
-      String output = "\n               Results\n"
-              + getCharSequence('=', 40) + "\n\n";
-
-      try {
-        if (targetType.equals("")) {
-          throw new monitor.InvalidSearchSortException(
-                  "Must select a search target from the dropdown menu");
-        }
-
-        // get output depending on target type
-        switch (targetType) {
-          case "Name":
-            output += getStringSearchByName(target);
-            break;
-          case "Type":
-            output += getStringSearchByType(target);
-            break;
-          case "Person: Skill":
-            output += getStringSearchBySkill(target);
-            break;
-          case "Ship: Max Length":
-            output += getStringSearchShipByMaxX("Length", target);
-            break;
-          case "Ship: Max Width":
-            output += getStringSearchShipByMaxX("Width", target);
-            break;
-
-        } // end of switch
-
-        outputSplitPane.setResizeWeight(0.3);
-        searchResultArea.setText(output);
-        outputSplitPane.resetToPreferredSizes();
-
-      } catch (monitor.InvalidSearchSortException e1) {
-        JOptionPane.showMessageDialog(this, e1.getMessage(), "Invalid Search",
-                JOptionPane.ERROR_MESSAGE);
-        searchResultArea.setText("");
-      } catch (NumberFormatException e2) {
-        String err = "For target type '" + targetType;
-
-        switch (targetType) {
-
-          case "Index":
-          case "Parent Index":
-            err += "' an integer must be entered.    ";
-            break;
-          case "Ship: Max Length":
-          case "Ship: Max Width":
-            err += "' a double must be entered.    ";
-
-        } // end of switch
-        JOptionPane.showMessageDialog(this, err, "Invalid Input", JOptionPane.ERROR_MESSAGE);
-      } // end of catch
-
-
+      searchButton.setEnabled(false);
+      new SearchWorker(targetType, target).execute();
     }); // end searchButton listener
 
     sortButton.addActionListener(e -> {
@@ -411,103 +319,452 @@ public class SeaPortMonitor extends JFrame {
       }
     });
 
+    // changes how fast the jobs of the current world run, and of worlds loaded later. A new
+    // speed wakes every sleeping job, so it is applied once the slider is released.
+    speedSlider.addChangeListener(e -> {
+      speedLabel.setText(formatSpeed(getSpeed()));
+      if (world != null && !speedSlider.getValueIsAdjusting()
+              && world.getExecutor().getClock().getSpeed() != getSpeed()) {
+        world.getExecutor().getClock().setSpeed(getSpeed());
+      }
+    });
+
 
   } // end SeaPortProgram constructor
 
 
   /*
-   * Populates a World object based on a provided,
-   * properly formatted data file
+   * Replaces the current world with a newly loaded one and rebuilds every view of it.
+   * Runs on the Event Dispatch Thread once the background load has finished.
    */
-  private void processDataFile(File file, monitor.World world, monitor.JobTable table)
-          throws FileNotFoundException {
+  private void showLoadedWorld(LoadedWorld loaded) {
+    // if not the first file load, kill the old threads
+    if (!isInitialFileLoad) {
+      killOldThreads();
+    }
 
-    Scanner lineSc = new Scanner(file);
-    Scanner tokenSc;
-    int lineCounter = 0;
+    // Create and populate world
+    jobsTable = new monitor.JobTable(loaded.result.getWorld());
+    portSelectionBtnPanel = new JPanel(new GridLayout(0, 1));
+    portSelectGroup = new ButtonGroup();
+    showWorld(loaded.result);
+    // ports loaded on demand are added to every view as they are read
+    world.setPortLoadListener((p, jobs) -> {
+      if (SwingUtilities.isEventDispatchThread()) {
+        showLoadedPort(p, jobs);
+      } else {
+        SwingUtilities.invokeLater(() -> showLoadedPort(p, jobs));
+      }
+    });
+
+    // get and display port resource panel
+    portResourcePanel = new monitor.PortResourcePanel(world.ports, this);
+    portResourceContainerPanel.removeAll();
+    portResourceContainerPanel.add(portResourcePanel, BorderLayout.CENTER);
+
+    // Display World
+    outputArea.setText(loaded.output);
+    worldTree = new monitor.PortTree(world.ports);
+    treeScroll.setViewportView(worldTree);
+
+    // Display Ship details in new frame when a ship in the tree is double-clicked
+    worldTree.addMouseListener(new MouseAdapter() {
+      @Override
+      public void mousePressed(MouseEvent e) {
+        try {
+          super.mousePressed(e);
+          if (e.getClickCount() >= 2) {
+            DefaultMutableTreeNode node = (DefaultMutableTreeNode) worldTree
+                    .getLastSelectedPathComponent();
+            if (node.getUserObject() instanceof monitor.Ship) {
+              new monitor.ShipDetailsFrame((monitor.Ship) node.getUserObject());
+            }
+          }
+        } catch (NullPointerException e1) {
+        }
+      }
+    });
+
+    // Load a port that has not been loaded yet when it is expanded
+    worldTree.addTreeWillExpandListener(new TreeWillExpandListener() {
+      @Override
+      public void treeWillExpand(TreeExpansionEvent e) {
+        Object obj = ((DefaultMutableTreeNode) e.getPath().getLastPathComponent()).getUserObject();
+        if (obj instanceof Port) {
+          ensurePortLoaded((Port) obj, null);
+        }
+      }
+
+      @Override
+      public void treeWillCollapse(TreeExpansionEvent e) {
+      }
+    });
+
+    // Display table in scrollpane
+    jobsTable.sort(SortColumn.PORT);
+    jobScrollPane.setViewportView(jobsTable);
+    world.startViewThread(jobsTable, "job-table");
+
+    // display port selection buttons and select first port
+    portSelectionScrollPane.setViewportView(portSelectionBtnPanel);
+    AbstractButton btn = Collections.list(portSelectGroup.getElements()).get(0);
+    btn.setSelected(true);
+
+    getRootPane().setDefaultButton(searchButton);
+    searchField.requestFocus();
+    searchResultArea.setText("");
+    searchField.setText("");
+    targetCBox.setSelectedIndex(0);
+    mainTabbedPane.setEnabled(true);
+    resultsPanel.setEnabled(true);
+    treePanel.setEnabled(true);
+    dataPanel.setEnabled(true);
+    outputSplitPane.setEnabled(true);
+    topSplitPane.setEnabled(true);
+    enableSearch();
+    enableSort();
+
+    portResourceContainerPanel.revalidate();
+    isInitialFileLoad = false;
+
+    // every view is built, start the jobs
+    world.setScheduleLog(openScheduleLog());
+    world.getExecutor().getClock().setSpeed(getSpeed());
+    world.startSimulation();
+  } // end of showLoadedWorld
+
+
+  /*
+   * Opens the schedule log named by the monitor.record or monitor.replay system property for the
+   * data file just loaded. Opened once the old world's log is closed, since a new recording may
+   * replace the same file. Returns null, running without a log, if there is none or it cannot
+   * be opened.
+   */
+  private ScheduleLog openScheduleLog() {
+    try {
+      return ScheduleLog.fromSystemProperties(dataFile);
+    } catch (IOException e) {
+      JOptionPane.showMessageDialog(this, "Error: Schedule log could not be opened: "
+              + e.getMessage(), "Schedule Log Error", JOptionPane.ERROR_MESSAGE);
+      return null;
+    }
+  }
+
+
+  // returns the simulation speed selected with the speed slider
+  private double getSpeed() {
+    return Math.pow(10, speedSlider.getValue() / 10.0);
+  }
+
+  private static String formatSpeed(double speed) {
+    return String.format((speed < 10) ? "%.2gx" : "%.0fx", speed);
+  }
+
+
+  /*
+   * Loads a port of a world loaded with ports on demand in the background and then runs the
+   * given task, if any, on the Event Dispatch Thread. The task runs at once if the port is
+   * already loaded. The port is added to the views by the world's port load listener.
+   */
+  private void ensurePortLoaded(Port p, Runnable whenLoaded) {
+    if (p.isLoaded()) {
+      if (whenLoaded != null) {
+        whenLoaded.run();
+      }
+      return;
+    }
+    new PortLoadWorker(p, whenLoaded).execute();
+  }
+
+
+  /*
+   * Adds a port that was just loaded on demand to the job table, world tree and world view. The
+   * jobs are the ones read for the port, since the ships' lists lose jobs as they end.
+   */
+  private void showLoadedPort(Port p, List<Job> jobs) {
+    if (p.world != world) {
+      // port of a world that has been replaced
+      return;
+    }
+    for (monitor.Job job : jobs) {
+      jobsTable.addJob(job);
+    }
+    worldTree.reloadPort(p);
+    try {
+      outputArea.setText(getFormattedOutput(null, null, null));
+    } catch (monitor.InvalidSearchSortException e) {
+    }
+  }
+
+
+  /*
+   * Makes a newly loaded World current and reports any errors found in the file
+   */
+  private void showWorld(monitor.LoadResult result) {
+    world = result.getWorld();
+
+    // report the first format errors, then the first invalid reference
     int errCounter = 0;
-    boolean invalidRefReportedFlag = false;
-    Map<Integer, Port> hmp = new HashMap<>();
-    Map<Integer, monitor.Dock> hmd = new HashMap<>();
-    Map<Integer, monitor.Ship> hms = new HashMap<>();
-
-    while (lineSc.hasNextLine()) {
-      tokenSc = new Scanner(lineSc.nextLine());
-      lineCounter++;
-      if (!tokenSc.hasNext()) {
-        continue;
+    for (monitor.LoadResult.LoadError err
+            : result.getErrors(monitor.LoadResult.ErrorKind.FORMAT)) {
+      // stop reporting if more than 3 errors have occurred
+      if (errCounter >= 3) {
+        break;
       }
+      monitor.DataFileFormatException e1 = new monitor.DataFileFormatException(err.getLine(),
+              errCounter++);
+      JOptionPane.showMessageDialog(this, e1.getMessage(), "Data File Error",
+              JOptionPane.INFORMATION_MESSAGE);
+    }
+    List<monitor.LoadResult.LoadError> linkErrors = result
+            .getErrors(monitor.LoadResult.ErrorKind.MISSING_PARENT);
+    if (!linkErrors.isEmpty()) {
+      JOptionPane.showMessageDialog(this, "Error: Attempt to link "
+                      + "object on line " + linkErrors.get(0).getLine()
+                      + " to an object that does not exist.\n"
+                      + "Program will continue but objects may be missing.", "Error",
+              JOptionPane.ERROR_MESSAGE);
+    }
 
-      String nextType = (tokenSc.next());
+    // add every job to the jobs table
+    for (monitor.Job job : world.getJobs()) {
+      jobsTable.addJob(job);
+    }
 
-      try { // first try
+    // add a selection button for every port
+    for (Port p : world.ports) {
+      JRadioButton btn = new JRadioButton(p.getName());
+      // the resource panel shows the port once it is loaded
+      btn.addActionListener(e -> ensurePortLoaded(p, () -> {
+        if (btn.isSelected()) {
+          portResourcePanel.setPort(btn.getText());
+        }
+      }));
+      portSelectGroup.add(btn);
+      portSelectionBtnPanel.add(btn);
+    }
+  } // end of showWorld
 
-        try { // second try
 
-          // add object based on first token in each line
-          switch (nextType) {
-            case "//":
-              break;
-            case "port":
-              Port p = new Port(tokenSc, world, hmp);
-              JRadioButton btn = new JRadioButton(p.getName());
-              btn.addActionListener(e -> portResourcePanel.setPort(btn.getText()));
-              portSelectGroup.add(btn);
-              portSelectionBtnPanel.add(btn);
-              break;
-            case "dock":
-              new monitor.Dock(tokenSc, hmp, hmd);
-              break;
-            case "pship":
-              new monitor.PassengerShip(tokenSc, hmp, hmd, hms);
-              break;
-            case "cship":
-              new monitor.CargoShip(tokenSc, hmp, hmd, hms);
-              break;
-            case "person":
-              new monitor.Person(tokenSc, hmp);
-              break;
-            case "job":
-              new monitor.Job(tokenSc, hms, table);
-              break;
-            // invalid object type found
-            default:
-              tokenSc.close();
-              throw new monitor.DataFileFormatException(lineCounter, errCounter);
-          } // end of switch
+  // A loaded world and its formatted output, built off the Event Dispatch Thread
+  private static class LoadedWorld {
+    private final monitor.LoadResult result;
+    private final String output;
 
-        } catch (NumberFormatException e) {
-          throw new monitor.DataFileFormatException(lineCounter, errCounter);
+    LoadedWorld(monitor.LoadResult result, String output) {
+      this.result = result;
+      this.output = output;
+    }
+  }
 
-        } catch (NullPointerException e1) {
-          if (!invalidRefReportedFlag) {
-            JOptionPane.showMessageDialog(this, "Error: Attempt to link "
-                            + "object on line " + lineCounter + " to an object that does not exist.\n"
-                            + "Program will continue but objects may be missing.", "Error",
-                    JOptionPane.ERROR_MESSAGE);
-            invalidRefReportedFlag = true;
-          }
-        } // end second try
-
-      } catch (monitor.DataFileFormatException e1) {
-        errCounter++;
-        // stop reporting if more than 3 errors have occurred
-        if (errCounter <= 3) {
-          JOptionPane.showMessageDialog(this, e1.getMessage(), "Data File Error",
-                  JOptionPane.INFORMATION_MESSAGE);
+
+  /*
+   * Loads a data file on a background thread. Progress is reported as the percentage of the
+   * file read, and the finished world is handed to the Event Dispatch Thread in done().
+   */
+  private class LoadWorker extends SwingWorker<LoadedWorld, Void> {
+    private final File file;
+    private final monitor.WorldLoader loader = new monitor.WorldLoader();
+
+    LoadWorker(File file) {
+      this.file = file;
+      loader.setLazyPorts(lazyLoadCheckBox.isSelected());
+      loader.setUseSnapshots(Boolean.getBoolean("monitor.snapshots"));
+      loader.setProgressListener((bytesRead, totalBytes) ->
+              setProgress((int) Math.min(100, 100 * bytesRead / Math.max(1, totalBytes))));
+    }
+
+    // stops the load, any world it already built is discarded
+    void cancelLoad() {
+      loader.cancel();
+    }
+
+    @Override
+    protected LoadedWorld doInBackground() throws Exception {
+      monitor.LoadResult result = loader.load(file, "Default World");
+      if (loader.isCancelled()) {
+        throw new CancellationException("Data file load was cancelled");
+      }
+      // the first port is shown in the resource panel, load it now if it is loaded on demand
+      if (!result.getWorld().ports.isEmpty()) {
+        result.getWorld().ports.get(0).ensureLoaded();
+      }
+      String output = getFormattedOutput(result.getWorld(), null, null, null);
+      return new LoadedWorld(result, output);
+    }
+
+    @Override
+    protected void done() {
+      loadFileButton.setEnabled(true);
+      chooseFileButton.setEnabled(true);
+      cancelLoadButton.setEnabled(false);
+      loadProgressBar.setValue(0);
+      loadProgressBar.setString("");
+
+      try {
+        showLoadedWorld(get());
+      } catch (ExecutionException e) {
+        if (e.getCause() instanceof CancellationException) {
+          loadProgressBar.setString("Load cancelled");
+        } else if (isInitialFileLoad) {
+          outputArea.setText("Error: File could not be read");
+          disableSearch();
+          disableSort();
+        } else {
+          // keep the current world
+          JOptionPane.showMessageDialog(SeaPortMonitor.this, "Error: File could not be read",
+                  "Load Error", JOptionPane.ERROR_MESSAGE);
         }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  } // end LoadWorker
 
-      } // end first try
 
-      tokenSc.close();
-    } // end of while
+  /*
+   * Reads a port loaded on demand from the data file on a background thread, reporting a data
+   * file that can no longer be read. Until it is read the port shows as not loaded.
+   */
+  private class PortLoadWorker extends SwingWorker<Void, Void> {
+    private final Port port;
+    private final Runnable whenLoaded;
+
+    PortLoadWorker(Port port, Runnable whenLoaded) {
+      this.port = port;
+      this.whenLoaded = whenLoaded;
+    }
 
-    lineSc.close();
+    @Override
+    protected Void doInBackground() {
+      port.ensureLoaded();
+      return null;
+    }
 
-    for (Port port : world.ports) {
-      port.buildResourceMap();
+    @Override
+    protected void done() {
+      try {
+        get();
+        if (whenLoaded != null && port.world == world) {
+          whenLoaded.run();
+        }
+      } catch (ExecutionException e) {
+        if (!(e.getCause() instanceof UncheckedIOException)) {
+          throw new IllegalStateException(e.getCause());
+        }
+        JOptionPane.showMessageDialog(SeaPortMonitor.this, "Error: Port " + port.getName()
+                + " could not be loaded from the data file", "Load Error",
+                JOptionPane.ERROR_MESSAGE);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
     }
-  } // end of processDataFile
+  } // end PortLoadWorker
+
+
+  /*
+   * Runs a search on a background thread, since searches of a world loaded with ports on demand
+   * read the ports they need from the data file. The results are shown in done(), unless
+   * another world was loaded in the meantime.
+   */
+  private class SearchWorker extends SwingWorker<String, Void> {
+    private final String targetType;
+    private final String target;
+    private final World searched = world;
+
+    SearchWorker(String targetType, String target) {
+      this.targetType = targetType;
+      this.target = target;
+    }
+
+    @Override
+    protected String doInBackground() throws monitor.InvalidSearchSortException {
+      String output = "\n               Results\n"
+              + getCharSequence('=', 40) + "\n\n";
+
+      if (targetType.equals("")) {
+        throw new monitor.InvalidSearchSortException(
+                "Must select a search target from the dropdown menu");
+      }
+
+      // get output depending on target type
+      switch (targetType) {
+        case "Name":
+          output += getStringSearchByName(target);
+          break;
+        case "Type":
+          output += getStringSearchByType(target);
+          break;
+        case "Person: Skill":
+          output += getStringSearchBySkill(target);
+          break;
+        case "Ship: Max Length":
+          output += getStringSearchShipByMaxX("Length", target);
+          break;
+        case "Ship: Max Width":
+          output += getStringSearchShipByMaxX("Width", target);
+          break;
+        case "Index":
+          output += getStringSearchByIndex(target);
+          break;
+        case "Parent Index":
+          output += getStringSearchByParentIndex(target);
+          break;
+        default:
+          break;
+      } // end of switch
+      return output;
+    }
+
+    @Override
+    protected void done() {
+      searchButton.setEnabled(true);
+      if (searched != world) {
+        return;
+      }
+
+      try {
+        String output = get();
+        outputSplitPane.setResizeWeight(0.3);
+        searchResultArea.setText(output);
+        outputSplitPane.resetToPreferredSizes();
+
+      } catch (ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof monitor.InvalidSearchSortException) {
+          JOptionPane.showMessageDialog(SeaPortMonitor.this, cause.getMessage(), "Invalid Search",
+                  JOptionPane.ERROR_MESSAGE);
+          searchResultArea.setText("");
+        } else if (cause instanceof UncheckedIOException) {
+          JOptionPane.showMessageDialog(SeaPortMonitor.this,
+                  "Error: Port could not be loaded from the data file", "Load Error",
+                  JOptionPane.ERROR_MESSAGE);
+        } else if (cause instanceof NumberFormatException) {
+          String err = "For target type '" + targetType;
+
+          switch (targetType) {
+
+            case "Index":
+            case "Parent Index":
+              err += "' an integer must be entered.    ";
+              break;
+            case "Ship: Max Length":
+            case "Ship: Max Width":
+              err += "' a double must be entered.    ";
+              break;
+            default:
+              break;
+          } // end of switch
+          JOptionPane.showMessageDialog(SeaPortMonitor.this, err, "Invalid Input",
+                  JOptionPane.ERROR_MESSAGE);
+        } else {
+          throw new IllegalStateException(cause);
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  } // end SearchWorker
 
 
   /*
@@ -554,6 +811,82 @@ public class SeaPortMonitor extends JFrame {
   } // end getStringSearchByName
 
 
+  /*
+   * Gets formatted text for the object with the supplied index
+   */
+  private String getStringSearchByIndex(String index) throws monitor.InvalidSearchSortException {
+    if (index.equals("")) {
+      throw new monitor.InvalidSearchSortException("Must enter an index");
+    }
+
+    monitor.Thing result = world.searchByIndex(Integer.parseInt(index));
+    if (result == null) {
+      return "No Results Found";
+    }
+
+    ArrayList<monitor.Thing> results = new ArrayList<>();
+    results.add(result);
+    return getStringGroupedByType(results);
+  } // end getStringSearchByIndex
+
+
+  /*
+   * Gets formatted text for all objects whose parent has the supplied index
+   */
+  private String getStringSearchByParentIndex(String index)
+          throws monitor.InvalidSearchSortException {
+    if (index.equals("")) {
+      throw new monitor.InvalidSearchSortException("Must enter an index");
+    }
+
+    ArrayList<monitor.Thing> results = world.searchByParentIndex(Integer.parseInt(index));
+    if (results.isEmpty()) {
+      return "No Results Found";
+    }
+    return getStringGroupedByType(results);
+  } // end getStringSearchByParentIndex
+
+
+  /*
+   * Formats objects of mixed types, each type under its own column labels
+   */
+  private String getStringGroupedByType(ArrayList<monitor.Thing> things) {
+    String[] labels = {portColLabels, dockColLabels, shipColLabels, personColLabels,
+            jobColLabels};
+    ArrayList<ArrayList<monitor.Thing>> groups = new ArrayList<>();
+    for (int i = 0; i < labels.length; i++) {
+      groups.add(new ArrayList<>());
+    }
+
+    for (monitor.Thing t : things) {
+      if (t instanceof Port) {
+        groups.get(0).add(t);
+      } else if (t instanceof monitor.Dock) {
+        groups.get(1).add(t);
+      } else if (t instanceof monitor.Ship) {
+        groups.get(2).add(t);
+      } else if (t instanceof monitor.Person) {
+        groups.get(3).add(t);
+      } else if (t instanceof monitor.Job) {
+        groups.get(4).add(t);
+      }
+    }
+
+    StringBuilder output = new StringBuilder();
+    for (int i = 0; i < labels.length; i++) {
+      if (groups.get(i).isEmpty()) {
+        continue;
+      }
+      output.append(labels[i]);
+      for (monitor.Thing t : groups.get(i)) {
+        output.append(t.toString() + "\n");
+      }
+      output.append("\n");
+    }
+    return output.toString();
+  } // end getStringGroupedByType
+
+
   /*
    * Gets formatted text for all persons who have the supplied skill
    */
@@ -586,6 +919,7 @@ public class SeaPortMonitor extends JFrame {
     }
     ArrayList<monitor.Thing> results;
     StringBuilder output = new StringBuilder();
+    world.loadAllPorts();
 
     switch (type.replaceAll("\\s", "")) {
       case "port":
@@ -691,6 +1025,12 @@ public class SeaPortMonitor extends JFrame {
    */
   public String getFormattedOutput(SortEnum type, String sortBy, String sortOrder)
           throws monitor.InvalidSearchSortException {
+    return getFormattedOutput(world, type, sortBy, sortOrder);
+  }
+
+  // Builds the summary for any World, so a newly loaded World can be formatted off the EDT
+  private String getFormattedOutput(monitor.World world, SortEnum type, String sortBy,
+          String sortOrder) throws monitor.InvalidSearchSortException {
     StringBuilder s = new StringBuilder();
 
     s.append("\n\tWorld: " + world.name + "\n\n");
@@ -710,6 +1050,11 @@ public class SeaPortMonitor extends JFrame {
         s.append(getCharSequence(' ', 21 - p.name.length()) + "=\n"
                 + "=                            =\n");
         s.append(getCharSequence('=', 190) + "\n");
+        if (!p.isLoaded()) {
+          s.append("Not loaded yet, select the port or expand it in the tree to load it\n");
+          s.append(getCharSequence('=', 190) + "\n\n\n");
+          continue;
+        }
         s.append(shipColLabels);
 
         if (!p.docks.isEmpty()) {
@@ -759,6 +1104,13 @@ public class SeaPortMonitor extends JFrame {
             s.append(pers.toString() + "\n");
           } // end of Persons foreach
         }
+
+        // skills the port lacks, found when it was loaded
+        String lacking = p.getFeasibilityReport();
+        if (!lacking.isEmpty()) {
+          s.append("\n" + lackingColLabels);
+          s.append(lacking);
+        }
         s.append(getCharSequence('=', 190) + "\n");
         s.append("\n\n");
       }
@@ -888,19 +1240,24 @@ public class SeaPortMonitor extends JFrame {
    * Kills all old threads related to the previous file load
    */
   private void killOldThreads() {
+    world.setPortLoadListener(null);
     jobsTable.kill();
     portResourcePanel.kill();
-    for (Port p : world.ports) {
-      for (monitor.Ship s : p.ships) {
-        synchronized (s.jobs) {
-          for (monitor.Job j : s.jobs) {
-            if (j != null) {
-              j.kill();
-            }
-          }
-        }
+    // the old world stops in the background so the new one is shown right away
+    World oldWorld = world;
+    ScheduleLog oldLog = oldWorld.getScheduleLog();
+    if (oldLog != null) {
+      // the old world's recording ends here
+      try {
+        oldLog.close();
+      } catch (IOException e) {
+        JOptionPane.showMessageDialog(this, "Error: Schedule log could not be written: "
+                + e.getMessage(), "Schedule Log Error", JOptionPane.ERROR_MESSAGE);
       }
     }
+    Thread shutdown = new Thread(() -> oldWorld.shutdown(SHUTDOWN_TIMEOUT), "world-shutdown");
+    shutdown.setDaemon(true);
+    shutdown.start();
   }
 
   // Generated with IntelliJ GUI designer
@@ -935,8 +1292,8 @@ public class SeaPortMonitor extends JFrame {
     mainPanel.add(filePanelContainer, gbc);
     filePanel = new JPanel();
     filePanel.setLayout(new GridBagLayout());
-    filePanel.setMinimumSize(new Dimension(10, 65));
-    filePanel.setPreferredSize(new Dimension(10, 65));
+    filePanel.setMinimumSize(new Dimension(10, 95));
+    filePanel.setPreferredSize(new Dimension(10, 95));
     gbc = new GridBagConstraints();
     gbc.gridx = 0;
     gbc.gridy = 0;
@@ -984,6 +1341,37 @@ public class SeaPortMonitor extends JFrame {
     gbc.gridy = 0;
     gbc.anchor = GridBagConstraints.WEST;
     filePanel.add(updateDataCheckBox, gbc);
+    loadProgressBar = new JProgressBar(0, 100);
+    loadProgressBar.setStringPainted(true);
+    loadProgressBar.setString("");
+    loadProgressBar.setPreferredSize(new Dimension(0, 20));
+    gbc = new GridBagConstraints();
+    gbc.gridx = 1;
+    gbc.gridy = 1;
+    gbc.weightx = 0.8;
+    gbc.fill = GridBagConstraints.HORIZONTAL;
+    gbc.insets = new Insets(5, 0, 0, 0);
+    filePanel.add(loadProgressBar, gbc);
+    cancelLoadButton = new JButton();
+    cancelLoadButton.setText("Cancel Load");
+    cancelLoadButton.setEnabled(false);
+    gbc = new GridBagConstraints();
+    gbc.gridx = 2;
+    gbc.gridy = 1;
+    gbc.weightx = 0.05;
+    gbc.fill = GridBagConstraints.HORIZONTAL;
+    gbc.insets = new Insets(5, 8, 0, 8);
+    filePanel.add(cancelLoadButton, gbc);
+    lazyLoadCheckBox = new JCheckBox();
+    lazyLoadCheckBox.setText("Load ports on demand");
+    lazyLoadCheckBox.setToolTipText(
+            "Only read a port's docks, ships, persons and jobs when the port is first used");
+    gbc = new GridBagConstraints();
+    gbc.gridx = 4;
+    gbc.gridy = 1;
+    gbc.anchor = GridBagConstraints.WEST;
+    gbc.insets = new Insets(5, 0, 0, 0);
+    filePanel.add(lazyLoadCheckBox, gbc);
     final JPanel spacer3 = new JPanel();
     gbc = new GridBagConstraints();
     gbc.gridx = 5;
@@ -1163,6 +1551,8 @@ public class SeaPortMonitor extends JFrame {
     defaultComboBoxModel7.addElement("Person: Skill");
     defaultComboBoxModel7.addElement("Ship: Max Length");
     defaultComboBoxModel7.addElement("Ship: Max Width");
+    defaultComboBoxModel7.addElement("Index");
+    defaultComboBoxModel7.addElement("Parent Index");
     targetCBox.setModel(defaultComboBoxModel7);
     targetCBox.setPreferredSize(new Dimension(0, 26));
     gbc = new GridBagConstraints();
@@ -1325,6 +1715,19 @@ public class SeaPortMonitor extends JFrame {
     gbc.weighty = 1.0;
     gbc.fill = GridBagConstraints.BOTH;
     jobStatusPanel.add(jobScrollPane, gbc);
+    speedPanel = new JPanel();
+    gbc = new GridBagConstraints();
+    gbc.gridx = 0;
+    gbc.gridy = 1;
+    gbc.anchor = GridBagConstraints.EAST;
+    jobStatusPanel.add(speedPanel, gbc);
+    speedPanel.add(new JLabel("Simulation speed"));
+    speedSlider = new JSlider(-10, 30, testMode ? 10 : 0);
+    speedSlider.setToolTipText("Speed of the jobs relative to real time, from 0.1x to 1000x");
+    speedPanel.add(speedSlider);
+    speedLabel = new JLabel(formatSpeed(getSpeed()));
+    speedLabel.setPreferredSize(new Dimension(50, 16));
+    speedPanel.add(speedLabel);
     portSelectionPanel = new JPanel();
     portSelectionPanel.setLayout(new GridBagLayout());
     portSelectionPanel.setMinimumSize(new Dimension(180, 39));
@@ -1,8 +1,6 @@
 package monitor;
 
 import java.util.ArrayList;
-import java.util.Map;
-import java.util.Scanner;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
@@ -19,26 +17,24 @@ public class Ship extends Thing implements Comparable<Thing>{
   Dock dock;
   Port port;
 
-  public Ship(Scanner sc, Map<Integer,Port> hmp, Map<Integer,Dock> hmd,
-          Map<Integer, Ship> hms){
-    super(sc);
-    hms.put(sc.nextInt(), this);
+  public Ship(DataRecord record, World world){
+    super(record);
 
-    int parent = sc.nextInt();
-    dock = hmd.get(parent);
+    dock = world.registry.getDock(parent);
     if(dock != null){
       dock.ship = this;
       port = dock.port;
     } else {
-      port = hmp.get(parent);
+      port = world.registry.getPort(parent);
       port.queue.add(this);
     }
     port.ships.add(this);
+    world.registry.register(this);
 
-    weight = Double.parseDouble(sc.next());
-    length = Double.parseDouble(sc.next());
-    width = Double.parseDouble(sc.next());
-    draft = Double.parseDouble(sc.next());
+    weight = record.values[0];
+    length = record.values[1];
+    width = record.values[2];
+    draft = record.values[3];
   }
 
   public String toString(){
@@ -65,46 +61,123 @@ public class Ship extends Thing implements Comparable<Thing>{
     return name;
   }
 
+  // returns the name of the ship's port, or "Departed" once the ship has left
+  String getPortName(){
+    Port p = port;
+    return (p == null) ? "Departed" : p.name;
+  }
+
   // Removes provided Job from jobs list and checks if that was the last job.
   // Departs port if no more jobs
-  synchronized void removeJob(Job job){
-    jobs.remove(job);
-
-    for (Person p : currentWorkers) {
-      if (p.currentjob == job) {
-        port.returnWorker(p);
+  void removeJob(Job job){
+    // the job's workers go back together, waking each waiting skill once
+    ArrayList<Person> returning = new ArrayList<>();
+    Port p;
+    boolean last;
+    synchronized (this){
+      jobs.remove(job);
+      for (Person worker : currentWorkers) {
+        if (worker.currentjob == job) {
+          returning.add(worker);
+        }
       }
+      // taken off the ship's list as well, a worker given to a later job of the ship would
+      // otherwise be returned again when that job ends
+      currentWorkers.removeAll(returning);
+      p = port;
+      last = jobs.isEmpty();
     }
 
-    if(jobs.isEmpty()){
+    // outside the ship's lock, a virtual thread holding a monitor must not wait for a pool's
+    // lock, it would keep its carrier thread from running the thread that holds the pool
+    if(!returning.isEmpty()){
+      p.returnWorkers(returning);
+    }
+    if(last){
       leavePort();
     }
   }
 
+  /**
+   * Assigns workers to a job, or registers the job with the port to be resumed when workers
+   * return
+   * @param job job of this ship
+   * @return true if the job may proceed, false if it must park until resumed
+   */
   boolean initiateJob(Job job){
     // initiate the job if it has no requirements
-    if(job.requirements.isEmpty()){
+    if(job.requirements.length == 0){
       return true;
     }
-    return port.requestWorkers(this, job);
+    return port.requestWorkersOrWait(this, job);
+  }
+
+  /**
+   * Starts the jobs of the ship that have not been started or cancelled. Called when the
+   * simulation starts for a docked ship, and when a queued ship docks, so the jobs of queued
+   * ships hold no thread.
+   */
+  void activateJobs(){
+    // started jobs may finish and remove themselves while the rest are started
+    ArrayList<Job> starting = new ArrayList<>();
+    JobExecutor executor;
+    synchronized (this){
+      if(port == null){
+        // the last job was cancelled and the ship has left
+        return;
+      }
+      executor = port.world.getExecutor();
+      for(Job j : jobs){
+        if(j.activate()){
+          starting.add(j);
+        }
+      }
+    }
+    for(Job j : starting){
+      j.start(executor);
+    }
+  }
+
+  /**
+   * Marks a cancelled job that was never started as activated, so it is not started later
+   * @param job job of this ship
+   * @return true if the job was never started and the caller must end it
+   */
+  synchronized boolean cancelInactiveJob(Job job){
+    return job.activate();
   }
 
   void addWorkers(ArrayList<Person> workers){
     currentWorkers.addAll(workers);
   }
 
-  // notifies dock of departure and clears dock and port references.
+  // clears dock and port references and notifies dock of departure. A queued ship that leaves is
+  // turned away when its turn to dock comes.
   void leavePort(){
-    if(dock != null) {
-      dock.notifyOfDeparture(this);
+    Dock d;
+    synchronized (this){
+      d = dock;
+      dock = null;
+      port = null;
+    }
+    if(d != null) {
+      d.notifyOfDeparture(this);
     }
-    dock = null;
-    port = null;
   }
 
-  // updates dock reference and notifies ship's jobs to begin progressing
-  synchronized void dock(Dock d){
-    this.dock = d;
-    notifyAll();
+  /**
+   * Updates dock reference and starts ship's jobs so they begin progressing
+   * @param d dock the ship was given
+   * @return false if the ship has already left, its jobs all cancelled while it was queued
+   */
+  boolean dock(Dock d){
+    synchronized (this){
+      if(port == null){
+        return false;
+      }
+      this.dock = d;
+    }
+    activateJobs();
+    return true;
   }
 }
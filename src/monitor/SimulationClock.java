@@ -0,0 +1,80 @@
+package monitor;
+
+/**
+ * File: SimulationClock.java
+ * Date: 18 October 2026
+ * @author Logan Hershberger
+ * Purpose: Clock that jobs measure their progress against. Simulated time runs at a speed factor
+ *          times the wall clock, and the factor can be changed while jobs are running without
+ *          the simulated time jumping.
+ */
+public class SimulationClock {
+
+  static final double MIN_SPEED = 0.1;
+  static final double MAX_SPEED = 1000;
+
+  private double speed;
+  private long baseTime;         // simulated milliseconds when the speed was last set
+  private long baseNanos;        // wall clock System.nanoTime when the speed was last set
+  private volatile Runnable speedListener;
+
+  /**
+   * Creates a clock starting at 0, running 10 times faster in test mode and otherwise in real
+   * time
+   */
+  public SimulationClock() {
+    this(SeaPortMonitor.testMode ? 10 : 1);
+  }
+
+  /**
+   * Creates a clock starting at 0
+   * @param speed simulated milliseconds per wall clock millisecond
+   */
+  public SimulationClock(double speed) {
+    this.speed = clamp(speed);
+    baseNanos = System.nanoTime();
+  }
+
+  // returns the simulated time in milliseconds
+  synchronized long currentTimeMillis() {
+    return baseTime + (long) ((System.nanoTime() - baseNanos) / 1e6 * speed);
+  }
+
+  /**
+   * Changes the speed factor, simulated time continues from its current value
+   * @param speed simulated milliseconds per wall clock millisecond, limited to 0.1 to 1000
+   */
+  public void setSpeed(double speed) {
+    synchronized (this) {
+      baseTime = currentTimeMillis();
+      baseNanos = System.nanoTime();
+      this.speed = clamp(speed);
+    }
+    Runnable listener = speedListener;
+    if (listener != null) {
+      listener.run();
+    }
+  }
+
+  // sets the listener run after every change of speed
+  void setSpeedListener(Runnable listener) {
+    speedListener = listener;
+  }
+
+  public synchronized double getSpeed() {
+    return speed;
+  }
+
+  /**
+   * Converts a span of simulated time to wall clock time at the current speed
+   * @param simulatedMillis simulated milliseconds
+   * @return wall clock milliseconds, rounded up
+   */
+  synchronized long toWallMillis(long simulatedMillis) {
+    return (long) Math.ceil(simulatedMillis / speed);
+  }
+
+  private static double clamp(double speed) {
+    return Math.max(MIN_SPEED, Math.min(MAX_SPEED, speed));
+  }
+}
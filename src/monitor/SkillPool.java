@@ -0,0 +1,100 @@
+package monitor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * File: SkillPool.java
+ * Date: 18 October 2026
+ * @author Logan Hershberger
+ * Purpose: The workers of one skill at a port that are not assigned a job. Each skill has its
+ *          own lock, so jobs needing different skills take and return workers without waiting for
+ *          each other. Each worker has a fixed slot in the pool and the available ones are the
+ *          set bits of a bitset over the slots, so taking, returning and looking up a worker are
+ *          bit operations, and a job takes the lowest free slots.
+ */
+public class SkillPool {
+
+  final int skillId;
+  private final Person[] members;                     // workers by slot, Person.poolSlot
+  final ReentrantLock lock = new ReentrantLock();
+  private final long[] available;                     // bit per slot, guarded by lock
+  private int firstWord;                              // no bits are set below this word
+  private volatile int availableCount;                // read by the views without the lock
+
+  /**
+   * Creates the pool of a skill with all of its workers available
+   * @param skillId id of the skill in the world's skill table
+   * @param persons every worker at the port with the skill
+   */
+  SkillPool(int skillId, ArrayList<Person> persons) {
+    this.skillId = skillId;
+    members = persons.toArray(new Person[0]);
+    available = new long[(members.length + 63) >>> 6];
+    for (int slot = 0; slot < members.length; slot++) {
+      members[slot].poolSlot = slot;
+      available[slot >>> 6] |= 1L << slot;
+    }
+    availableCount = members.length;
+  }
+
+  // returns the number of workers at the port with the skill
+  int getTotalCount() {
+    return members.length;
+  }
+
+  // returns the number of workers not assigned a job, exact while the lock is held and otherwise
+  // possibly behind a job taking workers
+  int getAvailableCount() {
+    return availableCount;
+  }
+
+  // the methods below are called with the lock held
+
+  // takes workers out of the pool for a job, the pool must have at least that many
+  void takeWorkers(int count, List<Person> into) {
+    int word = firstWord;
+    for (int i = 0; i < count; i++) {
+      while (available[word] == 0) {
+        word++;
+      }
+      long bits = available[word];
+      into.add(members[(word << 6) + Long.numberOfTrailingZeros(bits)]);
+      available[word] = bits & (bits - 1);
+    }
+    firstWord = word;
+    availableCount -= count;
+  }
+
+  // returns true if the worker belongs to this pool and is not assigned a job
+  boolean contains(Person person) {
+    int slot = person.poolSlot;
+    return slot < members.length && members[slot] == person
+            && (available[slot >>> 6] & (1L << slot)) != 0;
+  }
+
+  // takes an available worker out of the pool
+  void take(Person person) {
+    available[person.poolSlot >>> 6] &= ~(1L << person.poolSlot);
+    availableCount--;
+  }
+
+  /**
+   * Puts returning workers back in the pool, takes the lock itself
+   * @param persons workers of this skill
+   */
+  void putBack(List<Person> persons) {
+    lock.lock();
+    try {
+      for (Person person : persons) {
+        int word = person.poolSlot >>> 6;
+        available[word] |= 1L << person.poolSlot;
+        firstWord = Math.min(firstWord, word);
+      }
+      availableCount += persons.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+}
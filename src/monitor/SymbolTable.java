@@ -0,0 +1,61 @@
+package monitor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * File: SymbolTable.java
+ * Date: 18 October 2026
+ * @author Logan Hershberger
+ * Purpose: Interns the strings of a World so each distinct name or skill is stored once. Every
+ *          symbol gets a dense int id, in the order it was first seen, that can index arrays.
+ */
+public class SymbolTable {
+
+  private final HashMap<String, Integer> ids = new HashMap<>();
+  private final ArrayList<String> symbols = new ArrayList<>();
+
+  /**
+   * Returns the id of a symbol, adding it to the table if it has not been seen before
+   * @param symbol symbol to intern
+   * @return id of the symbol
+   */
+  synchronized int intern(String symbol) {
+    Integer id = ids.get(symbol);
+    if (id == null) {
+      id = symbols.size();
+      ids.put(symbol, id);
+      symbols.add(symbol);
+    }
+    return id;
+  }
+
+  /**
+   * Returns the stored instance of a symbol, adding it to the table if needed
+   * @param symbol symbol to intern
+   * @return the single String instance kept for this symbol
+   */
+  String canonical(String symbol) {
+    return get(intern(symbol));
+  }
+
+  // returns the symbol with the given id
+  synchronized String get(int id) {
+    return symbols.get(id);
+  }
+
+  /**
+   * Looks up the id of a symbol without adding it
+   * @param symbol symbol to find
+   * @return id of the symbol, or -1 if it is not in the table
+   */
+  synchronized int find(String symbol) {
+    Integer id = ids.get(symbol);
+    return (id == null) ? -1 : id;
+  }
+
+  // returns the number of symbols, which is one more than the largest id
+  synchronized int size() {
+    return symbols.size();
+  }
+}
@@ -1,7 +1,5 @@
 package monitor;
 
-        import java.util.Scanner;
-
 /**
  * File: Thing.java
  * Date: 27 May 2019
@@ -11,9 +9,13 @@ package monitor;
 public class Thing implements Comparable<Thing> {
 
   String name;
+  int index;
+  int parent;
 
-  public Thing(Scanner sc) {
-    name = sc.next();
+  public Thing(DataRecord record) {
+    name = record.name;
+    index = record.index;
+    parent = record.parent;
   }
 
   public int compareTo(Thing t) {
@@ -23,4 +25,12 @@ public class Thing implements Comparable<Thing> {
   public String getName(){
     return name;
   }
+
+  public int getIndex(){
+    return index;
+  }
+
+  public int getParent(){
+    return parent;
+  }
 }
@@ -0,0 +1,145 @@
+package monitor;
+
+import java.util.ArrayList;
+
+/**
+ * File: ThingRegistry.java
+ * Date: 18 October 2026
+ * @author Logan Hershberger
+ * Purpose: Index of every Thing in a World by its data file index. Lookups use an open
+ *          addressing table keyed by primitive ints, and each type keeps its own list so counts
+ *          and iteration by type never walk the port hierarchy.
+ */
+public class ThingRegistry {
+
+  private static final int INITIAL_CAPACITY = 64;
+
+  private int[] keys = new int[INITIAL_CAPACITY];
+  private Thing[] values = new Thing[INITIAL_CAPACITY];   // null marks an empty slot
+  private int size;
+
+  // ports are listed in World.ports. The type lists grow while ports are loaded on demand, so
+  // they are guarded by this like the table, and other threads copy them under the lock.
+  final ArrayList<Dock> docks = new ArrayList<>();
+  final ArrayList<Ship> ships = new ArrayList<>();
+  final ArrayList<Person> persons = new ArrayList<>();
+  final ArrayList<Job> jobs = new ArrayList<>();
+  private int cargoShipCount;
+
+  /**
+   * Adds a Thing under its index. A Thing already registered under the same index is replaced
+   * in the index but stays in its type list.
+   * @param thing Thing to register
+   */
+  synchronized void register(Thing thing) {
+    put(thing.index, thing);
+
+    if (thing instanceof Dock) {
+      docks.add((Dock) thing);
+    } else if (thing instanceof Ship) {
+      ships.add((Ship) thing);
+      if (thing instanceof CargoShip) {
+        cargoShipCount++;
+      }
+    } else if (thing instanceof Person) {
+      persons.add((Person) thing);
+    } else if (thing instanceof Job) {
+      jobs.add((Job) thing);
+    }
+  }
+
+  /**
+   * Looks up a Thing by its data file index
+   * @param index data file index
+   * @return the Thing, or null if no Thing has that index
+   */
+  synchronized Thing get(int index) {
+    int mask = keys.length - 1;
+    for (int i = mix(index) & mask; values[i] != null; i = (i + 1) & mask) {
+      if (keys[i] == index) {
+        return values[i];
+      }
+    }
+    return null;
+  }
+
+  // returns the Port with the given index, or null if the index is not a Port
+  Port getPort(int index) {
+    Thing t = get(index);
+    return (t instanceof Port) ? (Port) t : null;
+  }
+
+  // returns the Dock with the given index, or null if the index is not a Dock
+  Dock getDock(int index) {
+    Thing t = get(index);
+    return (t instanceof Dock) ? (Dock) t : null;
+  }
+
+  // returns the Ship with the given index, or null if the index is not a Ship
+  Ship getShip(int index) {
+    Thing t = get(index);
+    return (t instanceof Ship) ? (Ship) t : null;
+  }
+
+  // returns the number of indexed Things
+  synchronized int size() {
+    return size;
+  }
+
+  synchronized int getCargoShipCount() {
+    return cargoShipCount;
+  }
+
+  synchronized int getPassengerShipCount() {
+    return ships.size() - cargoShipCount;
+  }
+
+  // returns every registered Thing whose parent has the given index
+  synchronized ArrayList<Thing> getChildren(int parentIndex) {
+    ArrayList<Thing> results = new ArrayList<>();
+    for (Thing t : values) {
+      if (t != null && t.parent == parentIndex && !(t instanceof Port)) {
+        results.add(t);
+      }
+    }
+    return results;
+  }
+
+  private void put(int key, Thing value) {
+    int mask = keys.length - 1;
+    int i = mix(key) & mask;
+    for (; values[i] != null; i = (i + 1) & mask) {
+      if (keys[i] == key) {
+        values[i] = value;
+        return;
+      }
+    }
+    keys[i] = key;
+    values[i] = value;
+    size++;
+
+    // keep the table at most half full
+    if (size * 2 > keys.length) {
+      resize();
+    }
+  }
+
+  private void resize() {
+    int[] oldKeys = keys;
+    Thing[] oldValues = values;
+    keys = new int[oldKeys.length * 2];
+    values = new Thing[oldValues.length * 2];
+    size = 0;
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldValues[i] != null) {
+        put(oldKeys[i], oldValues[i]);
+      }
+    }
+  }
+
+  // spreads sequential indices across the table
+  private static int mix(int key) {
+    int h = key * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+}
@@ -1,6 +1,11 @@
 package monitor;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
 
 /**
  * File: World.java
@@ -11,6 +16,20 @@ import java.util.ArrayList;
 public class World {
 
   ArrayList<Port> ports = new ArrayList<>();
+  ThingRegistry registry = new ThingRegistry();
+  SymbolTable names = new SymbolTable();
+  SymbolTable skills = new SymbolTable();
+  PortIndex portIndex;          // null unless ports are loaded on demand
+  final JobStatusCounts jobCounts = new JobStatusCounts();   // jobs loaded so far by status
+  private BiConsumer<Port, List<Job>> portLoadListener;
+  private boolean simulationStarted = false;
+  private long simulationStartTime;
+  private final AtomicLong firstJobStartTime = new AtomicLong(-1);
+  private final LongAdder resumeCount = new LongAdder();
+  private volatile JobExecutor executor;
+  private volatile ScheduleLog scheduleLog;     // null unless decisions are recorded or replayed
+  private boolean shutDown = false;
+  private final ArrayList<Thread> viewThreads = new ArrayList<>();   // stopped by shutdown
   String name;
 
   public World(String name) {
@@ -18,6 +37,186 @@ public class World {
   }
 
 
+  /**
+   * Starts the simulation once the world is completely built. Ships with no jobs leave their
+   * docks and every job thread is started. Ports loaded on demand start as they are loaded.
+   * Calling this again has no effect.
+   */
+  public synchronized void startSimulation(){
+    if(simulationStarted){
+      return;
+    }
+    simulationStarted = true;
+    simulationStartTime = System.nanoTime();
+    getExecutor().beginStart();
+    try{
+      for(Port p : ports){
+        if(p.isLoaded()){
+          p.startSimulation();
+        }
+      }
+    } finally {
+      getExecutor().endStart();
+    }
+  }
+
+  /**
+   * Sets the executor that runs the jobs, must be called before the simulation starts
+   * @param executor job executor
+   */
+  public synchronized void setExecutor(JobExecutor executor){
+    this.executor = executor;
+  }
+
+  // returns the job executor, chosen from the monitor.executor system property if none was set
+  public JobExecutor getExecutor(){
+    JobExecutor e = executor;
+    if(e != null){
+      // no lock once set, ships get the executor while holding their own lock
+      return e;
+    }
+    synchronized (this){
+      if(executor == null){
+        executor = JobExecutor.fromSystemProperty();
+      }
+      return executor;
+    }
+  }
+
+  /**
+   * Sets the log that records the scheduling decisions of the run, or that the ports replay,
+   * must be called before the simulation starts
+   * @param scheduleLog recording or replaying log, or null for none
+   */
+  public synchronized void setScheduleLog(ScheduleLog scheduleLog){
+    this.scheduleLog = scheduleLog;
+  }
+
+  // returns the schedule log, or null if decisions are neither recorded nor replayed
+  ScheduleLog getScheduleLog(){
+    return scheduleLog;
+  }
+
+  // starts a port loaded on demand if the rest of the world is already running
+  synchronized void startLoadedPort(Port port){
+    if(simulationStarted && !shutDown){
+      getExecutor().beginStart();
+      try{
+        port.startSimulation();
+      } finally {
+        getExecutor().endStart();
+      }
+    }
+  }
+
+  // returns the number of jobs in each status, over the ports loaded so far
+  public JobStatusCounts getJobCounts(){
+    return jobCounts;
+  }
+
+  /**
+   * Checks whether every job of the world has ended, without walking the jobs
+   * @return true once every port is loaded and all of their jobs are done or cancelled
+   */
+  public boolean isJobsComplete(){
+    return jobCounts.isAllFinished() && isFullyLoaded();
+  }
+
+  public synchronized boolean isSimulationStarted(){
+    return simulationStarted;
+  }
+
+  // records the moment the first job of the simulation acquires its workers
+  void recordJobStarted(){
+    if(firstJobStartTime.get() < 0){
+      firstJobStartTime.compareAndSet(-1, System.nanoTime());
+    }
+  }
+
+  // counts a parked job being resumed
+  void recordJobResumed(){
+    resumeCount.increment();
+  }
+
+  // returns the number of times parked jobs have been resumed
+  public long getResumeCount(){
+    return resumeCount.sum();
+  }
+
+  /**
+   * Gets the time from the start of the simulation until the first job began running
+   * @return milliseconds, or -1 if no job has started yet
+   */
+  public synchronized double getTimeToFirstJob(){
+    long first = firstJobStartTime.get();
+    return (first < 0) ? -1 : (first - simulationStartTime) / 1e6;
+  }
+
+  /**
+   * Sets the listener notified on the loading thread each time a port is loaded on demand, with
+   * the port and every job read for it, including jobs that have already ended
+   * @param portLoadListener listener, or null for none
+   */
+  public void setPortLoadListener(BiConsumer<Port, List<Job>> portLoadListener){
+    this.portLoadListener = portLoadListener;
+  }
+
+  void firePortLoaded(Port port, List<Job> jobs){
+    BiConsumer<Port, List<Job>> listener = portLoadListener;
+    if(listener != null){
+      listener.accept(port, jobs);
+    }
+  }
+
+  /**
+   * Loads every port that has not been loaded yet. Does nothing unless the world was loaded
+   * with ports on demand.
+   * @throws java.io.UncheckedIOException if the data file can no longer be read
+   */
+  public void loadAllPorts(){
+    for(Port p : new ArrayList<>(ports)){
+      p.ensureLoaded();
+    }
+  }
+
+  // returns false while ports loaded on demand have not all been used
+  public boolean isFullyLoaded(){
+    return portIndex == null || portIndex.isFullyLoaded();
+  }
+
+  // loads the port that owns the given index, if ports are loaded on demand
+  private void loadOwner(int index){
+    if(portIndex != null){
+      Port owner = portIndex.getOwner(index);
+      if(owner != null){
+        owner.ensureLoaded();
+      }
+    }
+  }
+
+
+  /**
+   * Looks up an object by its data file index
+   * @param index index as an int
+   * @return the Port, Dock, Ship, Person or Job with that index, or null if there is none
+   */
+  public Thing searchByIndex(int index){
+    loadOwner(index);
+    return registry.get(index);
+  } // end of searchByIndex
+
+
+  /**
+   * Gets all objects whose parent has the given data file index
+   * @param index parent index as an int
+   * @return ArrayList of the Docks, Ships, Persons and Jobs linked to that parent
+   */
+  public ArrayList<Thing> searchByParentIndex(int index){
+    loadOwner(index);
+    return registry.getChildren(index);
+  } // end of searchByParentIndex
+
+
   /**
    * Searches for all persons who have the given skill
    * @param skill skill as a String
@@ -25,6 +224,7 @@ public class World {
    */
   public ArrayList<Person> searchBySkill(String skill){
     ArrayList<Person> results = new ArrayList<>();
+    loadAllPorts();
 
     for(Port p : ports){
       for(Person person : p.persons){
@@ -51,6 +251,7 @@ public class World {
     for(int i = 0; i < 5; i++){
       results.add(new ArrayList<>());
     }
+    loadAllPorts();
 
     for(Port port : ports){
       if(port.name.toLowerCase().equals(name)){
@@ -87,6 +288,7 @@ public class World {
    */
   public ArrayList<Ship> searchShipByMaxX(String attr, double value){
     ArrayList<Ship> results = new ArrayList<>();
+    loadAllPorts();
 
     for(Port port : ports){
       for(Ship ship : port.ships){
@@ -107,6 +309,88 @@ public class World {
     return results;
   } // end of searchShipByMaxX
 
+  /**
+   * Starts a thread that keeps a view of this world up to date. The thread is interrupted and
+   * waited for by shutdown, so it must end when interrupted.
+   * @param view the view's update loop
+   * @param threadName name of the thread
+   */
+  public synchronized void startViewThread(Runnable view, String threadName){
+    Thread t = new Thread(view, threadName);
+    t.setDaemon(true);
+    viewThreads.add(t);
+    t.start();
+  }
+
+  /**
+   * Stops the world so nothing keeps it running or reachable: kills every job and waits for the
+   * jobs to end, then shuts down the job executor and stops the view threads, waiting for all
+   * of their threads to end. A recording schedule log is closed. Ports can no longer be started
+   * afterwards.
+   * @param timeoutMillis longest time to wait in total
+   * @return true if every job and thread ended within the timeout and the schedule log, if
+   *         recorded, was written without errors
+   */
+  public boolean shutdown(long timeoutMillis){
+    long deadline = System.currentTimeMillis() + timeoutMillis;
+    JobExecutor jobExecutor;
+    ScheduleLog log;
+    ArrayList<Thread> views;
+    synchronized (this){
+      shutDown = true;
+      portLoadListener = null;
+      jobExecutor = executor;
+      log = scheduleLog;
+      views = new ArrayList<>(viewThreads);
+      viewThreads.clear();
+    }
+
+    boolean stopped = true;
+    try{
+      for(Thread t : views){
+        t.interrupt();
+      }
+      if(jobExecutor != null){
+        killJobs();
+        stopped = jobExecutor.shutdown(timeoutMillis);
+      }
+      for(Thread t : views){
+        t.join(Math.max(1, deadline - System.currentTimeMillis()));
+        stopped &= !t.isAlive();
+      }
+      if(log != null){
+        log.close();
+      }
+    } catch(InterruptedException e){
+      Thread.currentThread().interrupt();
+      return false;
+    } catch(IOException e){
+      // the decisions recorded until the error can still be replayed
+      return false;
+    }
+    return stopped;
+  } // end of shutdown
+
+  /**
+   * Kills every job in the world, each ends as CANCELLED whatever it is waiting for
+   */
+  void killJobs(){
+    ArrayList<Ship> ships;
+    synchronized (registry){
+      ships = new ArrayList<>(registry.ships);
+    }
+    for(Ship s : ships){
+      // killed jobs remove themselves from the ship
+      ArrayList<Job> shipJobs;
+      synchronized (s){
+        shipJobs = new ArrayList<>(s.jobs);
+      }
+      for(Job j : shipJobs){
+        j.kill();
+      }
+    }
+  }
+
   // returns all ports in the world
   public ArrayList<Thing> getPorts(){
     ArrayList<Thing> portslist = new ArrayList<>();
@@ -116,41 +400,88 @@ public class World {
 
   // returns all docks in the world
   public ArrayList<Thing> getDocks(){
-    ArrayList<Thing> results = new ArrayList<>();
-    for(Port p : ports){
-      results.addAll(p.docks);
+    synchronized (registry){
+      return new ArrayList<>(registry.docks);
+    }
+  }
+
+  // returns all jobs in the world, including jobs that have finished
+  public ArrayList<Job> getJobs(){
+    synchronized (registry){
+      return new ArrayList<>(registry.jobs);
     }
-    return results;
   }
 
   // returns all persons in the world
   public ArrayList<Thing> getPersons(){
-    ArrayList<Thing> results = new ArrayList<>();
-    for(Port p : ports){
-      results.addAll(p.persons);
+    synchronized (registry){
+      return new ArrayList<>(registry.persons);
+    }
+  }
+
+  public int getPortCount(){
+    return ports.size();
+  }
+
+  public int getDockCount(){
+    synchronized (registry){
+      return registry.docks.size();
+    }
+  }
+
+  // returns the number of ships loaded, including ships that have since departed
+  public int getShipCount(){
+    synchronized (registry){
+      return registry.ships.size();
+    }
+  }
+
+  public int getCargoShipCount(){
+    return registry.getCargoShipCount();
+  }
+
+  public int getPassengerShipCount(){
+    return registry.getPassengerShipCount();
+  }
+
+  public int getPersonCount(){
+    synchronized (registry){
+      return registry.persons.size();
+    }
+  }
+
+  public int getJobCount(){
+    synchronized (registry){
+      return registry.jobs.size();
     }
-    return results;
   }
 
 
   /**
-   * Gets the ships in the current world that the boolean flags call for
+   * Gets the ships in the current world that the boolean flags call for.
+   * Ships that have departed are not included.
    * @param cargo adds all cargo ships to the return arraylist
    * @param passenger adds all passenger ships to the return arraylist
    * @return ArrayList of Ships that match the defined criteria
    */
   public ArrayList<Thing> getShips(boolean cargo, boolean passenger){
     ArrayList<Thing> results = new ArrayList<>();
+    ArrayList<Ship> ships;
+    synchronized (registry){
+      ships = new ArrayList<>(registry.ships);
+    }
 
-    for(Port p : ports){
-      for(Ship s : p.ships){
-        if(cargo && (s instanceof CargoShip)){
-          results.add(s);
-        } else if(passenger && (s instanceof PassengerShip)){
-          results.add(s);
-        }
-      } // end of Ship foreach
-    } // end of Port foreach
+    for(Ship s : ships){
+      if(s.port == null){
+        // departed
+        continue;
+      }
+      if(cargo && (s instanceof CargoShip)){
+        results.add(s);
+      } else if(passenger && (s instanceof PassengerShip)){
+        results.add(s);
+      }
+    } // end of Ship foreach
 
     return results;
   } // end of getShips
@@ -0,0 +1,431 @@
+package monitor;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * File: WorldGenerator.java
+ * Date: 18 October 2026
+ * @author Logan Hershberger
+ * Purpose: Writes synthetic data files in the same format as the sample inputs so worlds of any
+ *          size can be loaded and simulated. Counts, the skill distribution, job durations, the
+ *          number of skills each job requires and the share of ships waiting in port queues are
+ *          configurable, and the same seed always produces the same file.
+ *
+ *          Usage: java monitor.WorldGenerator [options] outputFile
+ *            -ports n  -docks n  -pships n  -cships n  -persons n  -jobs n
+ *            -skills n          number of distinct skills
+ *            -skew s            zipf exponent of skill popularity, 0 for uniform
+ *            -minDuration d  -maxDuration d
+ *            -maxRequirements n number of skills a job requires is uniform from 0 to n
+ *            -queued r          fraction of ships parented to a port queue instead of a dock
+ *            -seed n
+ */
+public class WorldGenerator {
+
+  private static final String[] SKILLS = {"captain", "carpenter", "cleaner", "clerk",
+          "craneOperator", "crew", "driver", "electrician", "engineer", "inspector", "janitor",
+          "mate", "mechanic", "painter", "stevedore"};
+  private static final String[] PORT_NAMES = {"An_Ping", "Chimbote", "Norfolk", "Damietta",
+          "Cologne", "Athens", "Lubljana", "Santiago", "Kobe", "Rotterdam", "Valparaiso",
+          "Durban", "Gdansk", "Halifax", "Mombasa", "Tallinn"};
+  private static final String[] PERSON_NAMES = {"Raquel", "Alma", "Kent", "Sonia", "Marcus",
+          "Dolores", "Ivan", "Priya", "Tomas", "Greta", "Omar", "Lena", "Hugo", "Mei", "Felix",
+          "Nadia", "Victor", "Ines", "Bruno", "Yara"};
+  private static final String[] SYLLABLES = {"ba", "ce", "di", "fo", "gu", "ha", "je", "ki",
+          "lo", "mu", "na", "pe", "qui", "ro", "su", "ta", "ve", "wi", "xo", "zu", "ar", "el",
+          "in", "on", "ust"};
+
+  private int ports = 8;
+  private int docks = 105;
+  private int passengerShips = 160;
+  private int cargoShips = 160;
+  private int persons = 74;
+  private int jobs = 488;
+  private int skillCount = SKILLS.length;
+  private double skillSkew = 0.0;
+  private double minDuration = 20.0;
+  private double maxDuration = 120.0;
+  private int maxRequirements = 4;
+  private double queuedRatio = 0.35;
+  private long seed = 1L;
+
+  public static void main(String[] args) {
+    WorldGenerator generator = new WorldGenerator();
+    File out = null;
+    try {
+      for (int i = 0; i < args.length; i++) {
+        if (!args[i].startsWith("-")) {
+          out = new File(args[i]);
+          continue;
+        }
+        String value = args[++i];
+        switch (args[i - 1]) {
+          case "-ports":
+            generator.ports = Integer.parseInt(value);
+            break;
+          case "-docks":
+            generator.docks = Integer.parseInt(value);
+            break;
+          case "-pships":
+            generator.passengerShips = Integer.parseInt(value);
+            break;
+          case "-cships":
+            generator.cargoShips = Integer.parseInt(value);
+            break;
+          case "-persons":
+            generator.persons = Integer.parseInt(value);
+            break;
+          case "-jobs":
+            generator.jobs = Integer.parseInt(value);
+            break;
+          case "-skills":
+            generator.setSkills(Integer.parseInt(value), generator.skillSkew);
+            break;
+          case "-skew":
+            generator.setSkills(generator.skillCount, Double.parseDouble(value));
+            break;
+          case "-minDuration":
+            generator.setDurations(Double.parseDouble(value), generator.maxDuration);
+            break;
+          case "-maxDuration":
+            generator.setDurations(generator.minDuration, Double.parseDouble(value));
+            break;
+          case "-maxRequirements":
+            generator.setMaxRequirements(Integer.parseInt(value));
+            break;
+          case "-queued":
+            generator.setQueuedRatio(Double.parseDouble(value));
+            break;
+          case "-seed":
+            generator.setSeed(Long.parseLong(value));
+            break;
+          default:
+            throw new IllegalArgumentException("Unknown option " + args[i - 1]);
+        }
+      }
+      if (out == null) {
+        throw new IllegalArgumentException("No output file given");
+      }
+      // validate the counts together
+      generator.setCounts(generator.ports, generator.docks, generator.passengerShips,
+              generator.cargoShips, generator.persons, generator.jobs);
+      generator.write(out);
+    } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+      System.err.println("Error: " + e.getMessage());
+      System.err.println("Usage: java monitor.WorldGenerator [-ports n] [-docks n] [-pships n] "
+              + "[-cships n] [-persons n] [-jobs n] [-skills n] [-skew s] [-minDuration d] "
+              + "[-maxDuration d] [-maxRequirements n] [-queued r] [-seed n] outputFile");
+      System.exit(1);
+    } catch (IOException e) {
+      System.err.println("Error: " + out + " could not be written");
+      System.exit(1);
+    }
+  } // end of main
+
+  /**
+   * Sets the number of objects of each type
+   * @throws IllegalArgumentException if a count is negative or there is no port to hold the
+   *         other objects
+   */
+  public void setCounts(int ports, int docks, int passengerShips, int cargoShips, int persons,
+          int jobs) {
+    if (ports < 1 || docks < 0 || passengerShips < 0 || cargoShips < 0 || persons < 0
+            || jobs < 0) {
+      throw new IllegalArgumentException("Counts must not be negative and there must be a port");
+    }
+    if (jobs > 0 && passengerShips + cargoShips == 0) {
+      throw new IllegalArgumentException("Jobs need at least one ship");
+    }
+    if (Math.max(Math.max(ports, docks), Math.max(Math.max(passengerShips, cargoShips),
+            Math.max(persons, jobs))) > 100_000_000) {
+      throw new IllegalArgumentException("At most 100000000 objects of each type");
+    }
+    this.ports = ports;
+    this.docks = docks;
+    this.passengerShips = passengerShips;
+    this.cargoShips = cargoShips;
+    this.persons = persons;
+    this.jobs = jobs;
+  }
+
+  /**
+   * Sets how many skills exist and how popular each is. Skill i is chosen with weight
+   * 1 / (i + 1)^skew for both workers and job requirements.
+   * @param skillCount number of distinct skills, extra skills past the sample names are numbered
+   * @param skew zipf exponent, 0 gives every skill the same weight
+   */
+  public void setSkills(int skillCount, double skew) {
+    if (skillCount < 1 || skew < 0) {
+      throw new IllegalArgumentException("Need at least one skill and a skew of 0 or more");
+    }
+    this.skillCount = skillCount;
+    this.skillSkew = skew;
+  }
+
+  // sets the range job durations are chosen from uniformly
+  public void setDurations(double minDuration, double maxDuration) {
+    if (minDuration < 0 || maxDuration < minDuration) {
+      throw new IllegalArgumentException("Invalid duration range");
+    }
+    this.minDuration = minDuration;
+    this.maxDuration = maxDuration;
+  }
+
+  // sets the most skills a job may require, each job requires 0 to n skills
+  public void setMaxRequirements(int maxRequirements) {
+    if (maxRequirements < 0) {
+      throw new IllegalArgumentException("Requirement count must not be negative");
+    }
+    this.maxRequirements = maxRequirements;
+  }
+
+  /**
+   * Sets the share of ships that start in a port queue. The remaining ships are docked, one per
+   * dock, and ships that find no free dock are queued as well.
+   * @param queuedRatio fraction from 0 to 1
+   */
+  public void setQueuedRatio(double queuedRatio) {
+    if (queuedRatio < 0 || queuedRatio > 1) {
+      throw new IllegalArgumentException("Queued ratio must be between 0 and 1");
+    }
+    this.queuedRatio = queuedRatio;
+  }
+
+  public void setSeed(long seed) {
+    this.seed = seed;
+  }
+
+  /**
+   * Writes a data file
+   * @param file file to create or replace
+   * @throws IOException if the file cannot be written
+   */
+  public void write(File file) throws IOException {
+    try (Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file),
+            StandardCharsets.UTF_8), 1 << 16)) {
+      write(out);
+    }
+  }
+
+  /**
+   * Writes the data file text
+   * @param out destination, not closed
+   * @throws IOException if the text cannot be written
+   */
+  public void write(Writer out) throws IOException {
+    Random random = new Random(seed);
+    int shipCount = passengerShips + cargoShips;
+
+    // indices of each type start at a multiple of a power of ten, as in the sample files
+    int base = 10000;
+    while (base < Math.max(Math.max(docks, shipCount), Math.max(persons, jobs))) {
+      base *= 10;
+    }
+    int portBase = base;
+    int dockBase = 2 * base;
+    int passengerShipBase = 3 * base;
+    int cargoShipBase = 4 * base;
+    int personBase = 5 * base;
+    int jobBase = 6 * base;
+
+    String[] skills = new String[skillCount];
+    for (int i = 0; i < skillCount; i++) {
+      skills[i] = (i < SKILLS.length) ? SKILLS[i] : "skill" + (i + 1);
+    }
+    double[] skillWeights = new double[skillCount];
+    double total = 0;
+    for (int i = 0; i < skillCount; i++) {
+      total += 1.0 / Math.pow(i + 1, skillSkew);
+      skillWeights[i] = total;
+    }
+
+    int[] dockPorts = new int[docks];
+    for (int i = 0; i < docks; i++) {
+      dockPorts[i] = portBase + random.nextInt(ports);
+    }
+
+    // each ship is docked at a free dock or queued at a port, docks are filled in random order
+    int[] shipParents = new int[shipCount];
+    int[] dockShips = new int[docks];
+    int[] freeDocks = shuffledRange(docks, random);
+    int nextFreeDock = 0;
+    for (int i = 0; i < shipCount; i++) {
+      int shipIndex = (i < passengerShips) ? passengerShipBase + i
+              : cargoShipBase + (i - passengerShips);
+      if (nextFreeDock < docks && random.nextDouble() >= queuedRatio) {
+        int dock = freeDocks[nextFreeDock++];
+        shipParents[i] = dockBase + dock;
+        dockShips[dock] = shipIndex;
+      } else {
+        shipParents[i] = portBase + random.nextInt(ports);
+      }
+    }
+
+    StringBuilder line = new StringBuilder(128);
+    out.write("// parameters: " + ports + " " + docks + " " + passengerShips + " " + cargoShips
+            + " " + jobs + " " + persons + "\n");
+    out.write("//   ports, docks, pships, cships, jobs, persons\n");
+    out.write("// generated by monitor.WorldGenerator, seed " + seed + ", skills " + skillCount
+            + ", skew " + skillSkew + ", queued " + queuedRatio + "\n\n");
+
+    out.write("// port   name index parent(null)\n");
+    out.write("//    port   <string> <int> <int>\n");
+    for (int i = 0; i < ports; i++) {
+      String name = PORT_NAMES[i % PORT_NAMES.length];
+      if (i >= PORT_NAMES.length) {
+        name += "_" + (i / PORT_NAMES.length);
+      }
+      out.write("port " + name + " " + (portBase + i) + " 0\n");
+    }
+
+    out.write("\n// dock   name index parent(port)\n");
+    out.write("//    dock   <string> <int> <int>\n");
+    for (int i = 0; i < docks; i++) {
+      out.write("  dock Pier_" + i + " " + (dockBase + i) + " " + dockPorts[i] + " "
+              + dockShips[i] + "\n");
+    }
+
+    out.write("\n// pship  name index parent(dock/port) weight length width draft numPassengers "
+            + "numRooms numOccupied\n");
+    out.write("//    pship  <string> <int> <int> <double> <double> <double> <double> <int> <int> "
+            + "<int>\n");
+    for (int i = 0; i < passengerShips; i++) {
+      line.setLength(0);
+      appendShip(line, "    pship ", shipName(random), passengerShipBase + i, shipParents[i],
+              random);
+      int rooms = 100 + random.nextInt(1900);
+      int occupied = random.nextInt(rooms + 1);
+      int passengers = occupied + random.nextInt(occupied + 1);
+      line.append(' ').append(passengers).append(' ').append(rooms).append(' ').append(occupied)
+              .append('\n');
+      out.append(line);
+    }
+
+    out.write("\n// cship  name index parent(dock/port) weight length width draft cargoWeight "
+            + "cargoVolume cargoValue\n");
+    out.write("//    cship  <string> <int> <int> <double> <double> <double> <double> <double> "
+            + "<double> <double>\n");
+    for (int i = 0; i < cargoShips; i++) {
+      line.setLength(0);
+      appendShip(line, "    cship ", shipName(random), cargoShipBase + i,
+              shipParents[passengerShips + i], random);
+      line.append(' ');
+      appendDouble(line, uniform(random, 100, 250));
+      line.append(' ');
+      appendDouble(line, uniform(random, 100, 200));
+      line.append(' ');
+      appendDouble(line, uniform(random, 100, 1000));
+      line.append('\n');
+      out.append(line);
+    }
+
+    out.write("\n// person name index parent skill\n");
+    out.write("//    person <string> <int> <int> <string>\n");
+    for (int i = 0; i < persons; i++) {
+      line.setLength(0);
+      line.append("    person ");
+      appendPadded(line, PERSON_NAMES[random.nextInt(PERSON_NAMES.length)]);
+      line.append(' ').append(personBase + i).append(' ').append(portBase + random.nextInt(ports))
+              .append(' ').append(skills[pick(skillWeights, random)]).append('\n');
+      out.append(line);
+    }
+
+    out.write("\n// job    name index parent duration [skill]+ (one or more, matches skill in "
+            + "person, may repeat)\n");
+    out.write("//    job    <string> <int> <int> <double> [<string>]+\n");
+    for (int i = 0; i < jobs; i++) {
+      int ship = random.nextInt(shipCount);
+      int shipIndex = (ship < passengerShips) ? passengerShipBase + ship
+              : cargoShipBase + (ship - passengerShips);
+      line.setLength(0);
+      line.append("    job ");
+      appendPadded(line, "Job_" + random.nextInt(100) + "_" + random.nextInt(100) + "_" + i);
+      line.append(' ').append(jobBase + i).append(' ').append(shipIndex).append(' ');
+      appendDouble(line, uniform(random, minDuration, maxDuration));
+      int requirements = random.nextInt(maxRequirements + 1);
+      for (int r = 0; r < requirements; r++) {
+        line.append(' ').append(skills[pick(skillWeights, random)]);
+      }
+      line.append('\n');
+      out.append(line);
+    }
+  } // end of write
+
+
+  // appends the fields every ship has, up to and including the draft
+  private static void appendShip(StringBuilder line, String keyword, String name, int index,
+          int parent, Random random) {
+    line.append(keyword);
+    appendPadded(line, name);
+    line.append(' ').append(index).append(' ').append(parent);
+    double[] ranges = {50, 250, 100, 500, 30, 130, 15, 45};   // weight, length, width, draft
+    for (int i = 0; i < ranges.length; i += 2) {
+      line.append(' ');
+      appendDouble(line, uniform(random, ranges[i], ranges[i + 1]));
+    }
+  }
+
+  // returns a pronounceable ship name of two to four syllables
+  private static String shipName(Random random) {
+    StringBuilder name = new StringBuilder();
+    int syllables = 2 + random.nextInt(3);
+    for (int i = 0; i < syllables; i++) {
+      name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+    }
+    name.setCharAt(0, Character.toUpperCase(name.charAt(0)));
+    return name.toString();
+  }
+
+  // returns a random index into the cumulative weights
+  private static int pick(double[] cumulativeWeights, Random random) {
+    double target = random.nextDouble() * cumulativeWeights[cumulativeWeights.length - 1];
+    int i = Arrays.binarySearch(cumulativeWeights, target);
+    return Math.min((i < 0) ? -i - 1 : i, cumulativeWeights.length - 1);
+  }
+
+  private static double uniform(Random random, double min, double max) {
+    return min + random.nextDouble() * (max - min);
+  }
+
+  // returns 0 to n - 1 in random order
+  private static int[] shuffledRange(int n, Random random) {
+    int[] values = new int[n];
+    for (int i = 0; i < n; i++) {
+      values[i] = i;
+    }
+    for (int i = n - 1; i > 0; i--) {
+      int j = random.nextInt(i + 1);
+      int tmp = values[i];
+      values[i] = values[j];
+      values[j] = tmp;
+    }
+    return values;
+  }
+
+  // right aligns a name in 20 columns like the sample files
+  private static void appendPadded(StringBuilder line, String name) {
+    for (int i = name.length(); i < 20; i++) {
+      line.append(' ');
+    }
+    line.append(name);
+  }
+
+  // appends a non-negative value with two decimal places
+  private static void appendDouble(StringBuilder line, double value) {
+    long hundredths = Math.round(value * 100);
+    line.append(hundredths / 100).append('.');
+    long fraction = hundredths % 100;
+    if (fraction < 10) {
+      line.append('0');
+    }
+    line.append(fraction);
+  }
+}
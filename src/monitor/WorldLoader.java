@@ -0,0 +1,219 @@
+package monitor;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * File: WorldLoader.java
+ * Date: 18 October 2026
+ * @author Logan Hershberger
+ * Purpose: Builds a World from a data file without any user interface. The file is parsed into
+ *          records in parallel, then the records are linked in dependency order (ports, docks,
+ *          ships, persons, jobs) so parents may appear anywhere in the file. Problems are
+ *          collected in the LoadResult instead of being reported as they are found.
+ */
+public class WorldLoader {
+
+  // Receives the number of bytes of the data file consumed so far, may be called from any thread
+  public interface ProgressListener {
+    void progress(long bytesRead, long totalBytes);
+  }
+
+  private static final int CANCEL_CHECK_INTERVAL = 1024;
+
+  private ForkJoinPool pool = ForkJoinPool.commonPool();
+  private boolean useSnapshots = false;
+  private boolean lazyPorts = false;
+  private ProgressListener progressListener;
+  private volatile boolean cancelled = false;
+
+  public WorldLoader() {
+  }
+
+  // sets the pool used to parse the data file in parallel
+  public void setPool(ForkJoinPool pool) {
+    this.pool = pool;
+  }
+
+  /**
+   * Enables or disables the binary snapshot cache, which is off unless enabled. When enabled, a
+   * file that loads without errors is saved as a snapshot next to the data file and the snapshot
+   * is read instead of the text on later loads as long as the file is unchanged. A snapshot that
+   * cannot be read is deleted and the text is parsed instead.
+   * @param useSnapshots true to read and write snapshots
+   */
+  public void setUseSnapshots(boolean useSnapshots) {
+    this.useSnapshots = useSnapshots;
+  }
+
+  /**
+   * Enables or disables loading ports on demand. When enabled, only the ports are created by the
+   * load, along with an index of where each port's docks, ships, persons and jobs are in the
+   * file. A port's contents are read the first time Port.ensureLoaded is called. Snapshots are
+   * not used in this mode.
+   * @param lazyPorts true to load ports on demand
+   */
+  public void setLazyPorts(boolean lazyPorts) {
+    this.lazyPorts = lazyPorts;
+  }
+
+  // sets the listener notified as the data file is read
+  public void setProgressListener(ProgressListener progressListener) {
+    this.progressListener = progressListener;
+  }
+
+  /**
+   * Stops a load in progress. The load in progress throws a CancellationException. No job runs
+   * before World.startSimulation, so there is nothing else to stop. May be called from any
+   * thread.
+   */
+  public void cancel() {
+    cancelled = true;
+  }
+
+  public boolean isCancelled() {
+    return cancelled;
+  }
+
+  /**
+   * Loads a World from a data file
+   * @param file data file
+   * @param worldName name of the new World
+   * @return the populated World and any errors found in the file
+   * @throws IOException if the file cannot be read
+   * @throws CancellationException if the load was cancelled
+   */
+  public LoadResult load(File file, String worldName) throws IOException {
+    World world = new World(worldName);
+    LoadResult result = new LoadResult(world);
+
+    if (lazyPorts) {
+      // parse to find every line's port, the ports are filled in when first used
+      List<DataRecord> records = DataFileParser.parse(file, pool, progressListener,
+              this::isCancelled);
+      world.portIndex = PortIndex.build(file, records, world, result);
+      return result;
+    }
+
+    // phase 1: parse, or read the records back from a current snapshot
+    File snapshot = WorldSnapshot.getSnapshotFile(file);
+    boolean fromSnapshot = useSnapshots && WorldSnapshot.isCurrent(snapshot, file);
+    List<DataRecord> records = null;
+    if (fromSnapshot) {
+      try {
+        records = WorldSnapshot.read(snapshot);
+        if (progressListener != null) {
+          progressListener.progress(file.length(), file.length());
+        }
+      } catch (IOException | RuntimeException e) {
+        // damaged snapshot, parse the text and write a new one
+        snapshot.delete();
+        fromSnapshot = false;
+      }
+    }
+    if (!fromSnapshot) {
+      records = DataFileParser.parse(file, pool, progressListener, this::isCancelled);
+    }
+    result.setFromSnapshot(fromSnapshot);
+
+    // phase 2: link, nothing runs until World.startSimulation is called
+    link(records, world, result);
+
+    if (useSnapshots && !fromSnapshot && !result.hasErrors()) {
+      try {
+        WorldSnapshot.write(world, file, snapshot);
+      } catch (IOException e) {
+        // caching is optional, the text file is parsed again next time
+        snapshot.delete();
+      }
+    }
+
+    for (Port port : world.ports) {
+      port.buildResourceMap();
+      port.checkFeasibility();
+    }
+    return result;
+  } // end of load
+
+
+  // links records to their parents and adds them to the world, parents before children
+  private void link(List<DataRecord> records, World world, LoadResult result) {
+    // group records by link order, reporting lines that could not be parsed
+    ArrayList<ArrayList<DataRecord>> linkOrder = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      linkOrder.add(new ArrayList<>());
+    }
+    for (DataRecord r : records) {
+      if (r.isValid()) {
+        linkOrder.get(getLinkRank(r.type)).add(r);
+      } else {
+        result.addError(LoadResult.ErrorKind.FORMAT, r.line);
+      }
+    }
+
+    int linked = 0;
+    for (ArrayList<DataRecord> rank : linkOrder) {
+      for (DataRecord r : rank) {
+        if (++linked % CANCEL_CHECK_INTERVAL == 0 && cancelled) {
+          throw new CancellationException("Data file load was cancelled");
+        }
+        try {
+          linkRecord(r, world);
+        } catch (NullPointerException e) {
+          // parent index does not exist
+          result.addError(LoadResult.ErrorKind.MISSING_PARENT, r.line);
+        }
+      }
+    }
+  } // end of link
+
+
+  /**
+   * Creates the Thing described by a record and links it to its parent in the world
+   * @param r valid record whose parent is already in the world
+   * @param world world to add the Thing to
+   * @return the new Thing
+   * @throws NullPointerException if the parent index does not exist
+   */
+  static Thing linkRecord(DataRecord r, World world) {
+    // share one String per distinct name
+    r.name = world.names.canonical(r.name);
+    switch (r.type) {
+      case PORT:
+        return new Port(r, world);
+      case DOCK:
+        return new Dock(r, world);
+      case PASSENGER_SHIP:
+        return new PassengerShip(r, world);
+      case CARGO_SHIP:
+        return new CargoShip(r, world);
+      case PERSON:
+        return new Person(r, world);
+      case JOB:
+      default:
+        return new Job(r, world);
+    } // end of switch
+  } // end of linkRecord
+
+
+  // returns the position of a record type in the link order, parents before children
+  static int getLinkRank(DataRecord.Type type) {
+    switch (type) {
+      case PORT:
+        return 0;
+      case DOCK:
+        return 1;
+      case PASSENGER_SHIP:
+      case CARGO_SHIP:
+        return 2;
+      case PERSON:
+        return 3;
+      default:
+        return 4;
+    }
+  }
+}
@@ -0,0 +1,328 @@
+package monitor;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * File: WorldSnapshot.java
+ * Date: 18 October 2026
+ * @author Logan Hershberger
+ * Purpose: Compact binary form of a freshly loaded World. All names and skills are stored once in
+ *          a string table and objects refer to them, and to their parents, by int. Reading a
+ *          snapshot produces the same records as parsing the text file, in link order, so it
+ *          goes through the normal linking phase. A snapshot is written to a temporary file
+ *          and moved into place once complete, and its header records the length of the rest,
+ *          so a snapshot cut short is never taken as current.
+ *
+ *          Layout (big endian):
+ *            int magic, short version, long source length, long source modified time,
+ *            long length of the rest of the file
+ *            int string count, then per string: int byte length, UTF-8 bytes
+ *            ports:   int count, then per port:   name, index
+ *            docks:   int count, then per dock:   name, index, parent
+ *            ships:   int count, then per ship:   byte type, name, index, parent, 7 doubles
+ *            persons: int count, then per person: name, index, parent, skill
+ *            jobs:    int count, then per job:    name, index, parent, double duration,
+ *                                                 int requirement count, requirements
+ */
+public class WorldSnapshot {
+
+  static final String FILE_EXTENSION = ".snap";
+  private static final int MAGIC = 0x53504D53;    // "SPMS"
+  private static final short VERSION = 2;
+  private static final int HEADER_LENGTH = 30;
+  private static final int PAYLOAD_LENGTH_OFFSET = 22;
+  private static final byte PASSENGER = 0;
+  private static final byte CARGO = 1;
+
+  private WorldSnapshot() {
+  }
+
+  // returns the snapshot file used to cache the given data file
+  static File getSnapshotFile(File dataFile) {
+    return new File(dataFile.getPath() + FILE_EXTENSION);
+  }
+
+  /**
+   * Checks that a snapshot exists, is complete and was written from the current contents of the
+   * data file
+   * @param snapshot snapshot file
+   * @param dataFile data file the snapshot was taken from
+   * @return true if the snapshot can be read in place of the data file
+   */
+  static boolean isCurrent(File snapshot, File dataFile) {
+    if (!snapshot.isFile()) {
+      return false;
+    }
+    try (FileChannel channel = FileChannel.open(snapshot.toPath(), StandardOpenOption.READ)) {
+      ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+      if (channel.read(header, 0) < header.capacity()) {
+        return false;
+      }
+      header.flip();
+      return header.getInt() == MAGIC && header.getShort() == VERSION
+              && header.getLong() == dataFile.length()
+              && header.getLong() == dataFile.lastModified()
+              && header.getLong() == channel.size() - HEADER_LENGTH;
+    } catch (IOException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Writes a snapshot of a World that has just been loaded from a data file. The snapshot is
+   * written to a temporary file in the same directory, which then replaces the snapshot file in
+   * one step, so a write that fails part way leaves no snapshot behind.
+   * @param world world to save
+   * @param dataFile data file the world was loaded from
+   * @param snapshot file to write
+   * @throws IOException if the snapshot cannot be written
+   */
+  public static void write(World world, File dataFile, File snapshot) throws IOException {
+    ArrayList<Dock> docks = new ArrayList<>();
+    ArrayList<Ship> ships = new ArrayList<>();
+    ArrayList<Person> persons = new ArrayList<>();
+    ArrayList<Job> jobs = new ArrayList<>();
+    for (Port port : world.ports) {
+      docks.addAll(port.docks);
+      ships.addAll(port.ships);
+      persons.addAll(port.persons);
+      for (Ship ship : port.ships) {
+        jobs.addAll(ship.jobs);
+      }
+    }
+
+    // build the string table
+    HashMap<String, Integer> stringIds = new HashMap<>();
+    ArrayList<String> strings = new ArrayList<>();
+    for (Port port : world.ports) {
+      addString(port.name, stringIds, strings);
+    }
+    for (Dock dock : docks) {
+      addString(dock.name, stringIds, strings);
+    }
+    for (Ship ship : ships) {
+      addString(ship.name, stringIds, strings);
+    }
+    for (Person person : persons) {
+      addString(person.name, stringIds, strings);
+      addString(person.skill, stringIds, strings);
+    }
+    for (Job job : jobs) {
+      addString(job.name, stringIds, strings);
+      for (String skill : job.getRequirementNames()) {
+        addString(skill, stringIds, strings);
+      }
+    }
+
+    Path target = snapshot.getAbsoluteFile().toPath();
+    Path temp = Files.createTempFile(target.getParent(), snapshot.getName(), ".tmp");
+    try {
+      long payloadLength;
+      try (DataOutputStream out = new DataOutputStream(
+              new BufferedOutputStream(new FileOutputStream(temp.toFile()), 1 << 16))) {
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeLong(dataFile.length());
+        out.writeLong(dataFile.lastModified());
+        out.writeLong(0);     // length of the rest, filled in once it is written
+
+        out.writeInt(strings.size());
+        for (String s : strings) {
+          byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+          out.writeInt(bytes.length);
+          out.write(bytes);
+        }
+
+        out.writeInt(world.ports.size());
+        for (Port port : world.ports) {
+          out.writeInt(stringIds.get(port.name));
+          out.writeInt(port.index);
+        }
+
+        out.writeInt(docks.size());
+        for (Dock dock : docks) {
+          writeThing(out, dock, stringIds);
+        }
+
+        out.writeInt(ships.size());
+        for (Ship ship : ships) {
+          out.writeByte((ship instanceof CargoShip) ? CARGO : PASSENGER);
+          writeThing(out, ship, stringIds);
+          out.writeDouble(ship.weight);
+          out.writeDouble(ship.length);
+          out.writeDouble(ship.width);
+          out.writeDouble(ship.draft);
+          if (ship instanceof CargoShip) {
+            CargoShip c = (CargoShip) ship;
+            out.writeDouble(c.cargoWeight);
+            out.writeDouble(c.cargoVolume);
+            out.writeDouble(c.cargoValue);
+          } else {
+            PassengerShip p = (PassengerShip) ship;
+            out.writeDouble(p.numberOfPassengers);
+            out.writeDouble(p.numberOfRooms);
+            out.writeDouble(p.numberOfOccupiedRooms);
+          }
+        }
+
+        out.writeInt(persons.size());
+        for (Person person : persons) {
+          writeThing(out, person, stringIds);
+          out.writeInt(stringIds.get(person.skill));
+        }
+
+        out.writeInt(jobs.size());
+        for (Job job : jobs) {
+          writeThing(out, job, stringIds);
+          out.writeDouble(job.getDuration());
+          out.writeInt(job.requirements.length);
+          for (String skill : job.getRequirementNames()) {
+            out.writeInt(stringIds.get(skill));
+          }
+        }
+        out.flush();
+        payloadLength = out.size() - HEADER_LENGTH;
+      }
+      try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+        ByteBuffer length = ByteBuffer.allocate(8);
+        length.putLong(0, payloadLength);
+        channel.write(length, PAYLOAD_LENGTH_OFFSET);
+        channel.force(true);
+      }
+      Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE,
+              StandardCopyOption.REPLACE_EXISTING);
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+  } // end of write
+
+  /**
+   * Reads a snapshot back into records, ordered so that parents come before their children
+   * @param snapshot snapshot file
+   * @return records in link order
+   * @throws IOException if the file cannot be read, is not a snapshot of this version or is
+   *         incomplete or damaged
+   */
+  public static List<DataRecord> read(File snapshot) throws IOException {
+    ByteBuffer in;
+    try (FileChannel channel = FileChannel.open(snapshot.toPath(), StandardOpenOption.READ)) {
+      in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+
+    if (in.getInt() != MAGIC || in.getShort() != VERSION) {
+      throw new IOException("Not a world snapshot: " + snapshot);
+    }
+    in.getLong();
+    in.getLong();
+    if (in.getLong() != in.remaining()) {
+      throw new IOException("World snapshot is incomplete: " + snapshot);
+    }
+
+    String[] strings = new String[readCount(in, 4)];
+    byte[] bytes = new byte[256];
+    for (int i = 0; i < strings.length; i++) {
+      int len = readCount(in, 1);
+      if (len > bytes.length) {
+        bytes = new byte[len];
+      }
+      in.get(bytes, 0, len);
+      strings[i] = new String(bytes, 0, len, StandardCharsets.UTF_8);
+    }
+
+    ArrayList<DataRecord> records = new ArrayList<>();
+    int line = 0;
+
+    int count = readCount(in, 8);
+    for (int i = 0; i < count; i++) {
+      DataRecord r = new DataRecord(DataRecord.Type.PORT, ++line);
+      r.name = strings[in.getInt()];
+      r.index = in.getInt();
+      records.add(r);
+    }
+
+    count = readCount(in, 12);
+    for (int i = 0; i < count; i++) {
+      records.add(readThing(in, DataRecord.Type.DOCK, ++line, strings));
+    }
+
+    count = readCount(in, 69);
+    for (int i = 0; i < count; i++) {
+      DataRecord.Type type = (in.get() == CARGO) ? DataRecord.Type.CARGO_SHIP
+              : DataRecord.Type.PASSENGER_SHIP;
+      DataRecord r = readThing(in, type, ++line, strings);
+      r.values = new double[7];
+      for (int v = 0; v < r.values.length; v++) {
+        r.values[v] = in.getDouble();
+      }
+      records.add(r);
+    }
+
+    count = readCount(in, 16);
+    for (int i = 0; i < count; i++) {
+      DataRecord r = readThing(in, DataRecord.Type.PERSON, ++line, strings);
+      r.skills = new String[] {strings[in.getInt()]};
+      records.add(r);
+    }
+
+    count = readCount(in, 24);
+    for (int i = 0; i < count; i++) {
+      DataRecord r = readThing(in, DataRecord.Type.JOB, ++line, strings);
+      r.values = new double[] {in.getDouble()};
+      r.skills = new String[readCount(in, 4)];
+      for (int s = 0; s < r.skills.length; s++) {
+        r.skills[s] = strings[in.getInt()];
+      }
+      records.add(r);
+    }
+
+    return records;
+  } // end of read
+
+  // reads a count of items of at least the given size each, which must fit in the rest of the
+  // snapshot, so a damaged count fails instead of allocating without bound
+  private static int readCount(ByteBuffer in, int bytesEach) throws IOException {
+    int count = in.getInt();
+    if (count < 0 || (long) count * bytesEach > in.remaining()) {
+      throw new IOException("World snapshot is damaged");
+    }
+    return count;
+  }
+
+  private static void addString(String s, HashMap<String, Integer> ids, ArrayList<String> table) {
+    if (!ids.containsKey(s)) {
+      ids.put(s, table.size());
+      table.add(s);
+    }
+  }
+
+  // writes the name, index and parent shared by all child objects
+  private static void writeThing(DataOutputStream out, Thing thing,
+          HashMap<String, Integer> stringIds) throws IOException {
+    out.writeInt(stringIds.get(thing.name));
+    out.writeInt(thing.index);
+    out.writeInt(thing.parent);
+  }
+
+  private static DataRecord readThing(ByteBuffer in, DataRecord.Type type, int line,
+          String[] strings) {
+    DataRecord r = new DataRecord(type, line);
+    r.name = strings[in.getInt()];
+    r.index = in.getInt();
+    r.parent = in.getInt();
+    return r;
+  }
+}